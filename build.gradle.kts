@@ -6,6 +6,7 @@ plugins {
 	id("application")
 	id("org.sonarqube") version "5.1.0.4882"
 	id("jacoco")
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 val targetJavaVersion = (project.property("jdk_version") as String).toInt()
@@ -38,6 +39,7 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-websocket")
 	implementation("org.springframework.retry:spring-retry")
 
 	implementation("jakarta.annotation:jakarta.annotation-api")
@@ -46,7 +48,9 @@ dependencies {
 
 	implementation("org.flywaydb:flyway-core")
 	implementation("org.flywaydb:flyway-database-postgresql")
-	runtimeOnly("org.postgresql:postgresql")
+	implementation("org.postgresql:postgresql")
+
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
 	compileOnly("jakarta.servlet:jakarta.servlet-api")
 
@@ -70,4 +74,35 @@ tasks.test {
 
 tasks.jacocoTestReport {
 	dependsOn(tasks.test)
+}
+
+val loadTest: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+	"loadTestImplementation"("com.opentable.components:otj-pg-embedded:${project.property("lib_otg_pg_embedded_version")}")
+	"loadTestImplementation"("org.hdrhistogram:HdrHistogram:${project.property("lib_hdr_histogram_version")}")
+}
+
+tasks.register<JavaExec>("loadTest") {
+	description = "Runs load generator against embedded application or application passed by -Pload.url"
+	group = "verification"
+	classpath = loadTest.runtimeClasspath
+	mainClass = "com.github.sibmaks.sp.load.LoadTest"
+	systemProperty("load.reportDir", layout.buildDirectory.dir("reports/load").get().asFile.path)
+	systemProperties(project.properties.filterKeys { it.startsWith("load.") })
+}
+
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
 }
\ No newline at end of file
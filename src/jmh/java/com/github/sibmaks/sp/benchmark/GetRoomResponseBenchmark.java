@@ -0,0 +1,54 @@
+package com.github.sibmaks.sp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.response.GetRoomResponse;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GetRoomResponse} construction benchmark.
+ * {@code cachedState} is a room poll served from existing snapshot,
+ * {@code newState} is first poll after room change without object mapper, snapshot groups are built once.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GetRoomResponseBenchmark {
+    @Param({"10", "100", "1000"})
+    private int participantCount;
+    @Param({"true", "false"})
+    private boolean voting;
+
+    private User viewer;
+    private Room room;
+    private List<ParticipantDto> participants;
+    private RoomState roomState;
+
+    @Setup
+    public void setUp() {
+        viewer = RoomFixtures.user(1);
+        room = RoomFixtures.room(42, viewer, voting);
+        participants = RoomFixtures.participants(participantCount);
+        roomState = new RoomState(room, null, participants, System.currentTimeMillis(), new ObjectMapper());
+        roomState.getGroupInfosJson();
+    }
+
+    @Benchmark
+    public GetRoomResponse cachedState() {
+        return new GetRoomResponse(viewer, roomState);
+    }
+
+    @Benchmark
+    public GetRoomResponse newState() {
+        return new GetRoomResponse(viewer, room, participants);
+    }
+}
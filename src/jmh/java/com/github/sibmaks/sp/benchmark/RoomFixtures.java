@@ -0,0 +1,75 @@
+package com.github.sibmaks.sp.benchmark;
+
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Test data for room read path benchmarks
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+final class RoomFixtures {
+    static final String[] ROLES = {"DEV", "QA", "ANALYST", "DEVOPS"};
+
+    private RoomFixtures() {
+    }
+
+    /**
+     * Build user with specific identifier
+     *
+     * @param id user identifier
+     * @return user domain
+     */
+    static User user(long id) {
+        var user = new User();
+        user.setId(id);
+        user.setFirstName("first-" + id);
+        user.setLastName("last-" + id);
+        return user;
+    }
+
+    /**
+     * Build room with specific identifier and author
+     *
+     * @param id room identifier
+     * @param author room author
+     * @param voting room voting state
+     * @return room domain
+     */
+    static Room room(long id, User author, boolean voting) {
+        var now = System.currentTimeMillis();
+        return Room.builder()
+                .id(id)
+                .name("room-" + id)
+                .author(author)
+                .voting(voting)
+                .created(new Date(now))
+                .expired(new Date(now + 3_600_000))
+                .version(id)
+                .build();
+    }
+
+    /**
+     * Build room participants spread across {@link #ROLES}, every second participant has voted.
+     * User identifiers start from 1, so user 1 is always participant.
+     *
+     * @param count participant count
+     * @return participants
+     */
+    static List<ParticipantDto> participants(int count) {
+        var participants = new ArrayList<ParticipantDto>(count);
+        for (int i = 0; i < count; i++) {
+            var userId = i + 1L;
+            var roleId = i % ROLES.length;
+            var score = i % 2 == 0 ? String.valueOf(i % 13) : null;
+            participants.add(new ParticipantDto(userId, "last-" + userId + " first-" + userId, roleId, ROLES[roleId], score));
+        }
+        return participants;
+    }
+}
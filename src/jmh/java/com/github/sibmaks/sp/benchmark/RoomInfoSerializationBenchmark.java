@@ -0,0 +1,51 @@
+package com.github.sibmaks.sp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.entity.RoomInfo;
+import com.github.sibmaks.sp.api.response.GetRoomResponse;
+import com.github.sibmaks.sp.dto.RoomState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization benchmark of {@link RoomInfo} and whole {@link GetRoomResponse}.
+ * Participant groups are already serialized in room snapshot, so response writes only viewer dependent fields,
+ * room info is written with groups, as it is sent to room event subscribers.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomInfoSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int participantCount;
+
+    private ObjectMapper objectMapper;
+    private GetRoomResponse response;
+    private RoomInfo roomInfo;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        var viewer = RoomFixtures.user(1);
+        var room = RoomFixtures.room(42, viewer, false);
+        var roomState = new RoomState(room, null, RoomFixtures.participants(participantCount), System.currentTimeMillis(),
+                objectMapper);
+        response = new GetRoomResponse(viewer, roomState);
+        roomInfo = response.getRoomInfo();
+    }
+
+    @Benchmark
+    public byte[] roomInfo() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(roomInfo);
+    }
+
+    @Benchmark
+    public byte[] response() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.sibmaks.sp.load;
+
+import com.github.sibmaks.sp.Application;
+import com.opentable.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+
+/**
+ * Application started in the same JVM with embedded Postgres.
+ * Unlike tests data source, connections are pooled by Hikari as in production.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class EmbeddedApp implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedApp(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * Start embedded Postgres and application on random port
+     *
+     * @param profiles active application profiles, can be empty
+     * @return started application
+     * @throws IOException if Postgres can't be started
+     */
+    static EmbeddedApp start(String profiles) throws IOException {
+        var postgres = EmbeddedPostgres.builder().start();
+        try {
+            var properties = new HashMap<String, Object>();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            properties.put("spring.datasource.username", "postgres");
+            properties.put("spring.profiles.active", profiles);
+            properties.put("server.port", 0);
+            properties.put("app.session.ttl.type", "DAYS");
+            properties.put("app.session.ttl.value", 1);
+            var context = new SpringApplicationBuilder(Application.class)
+                    .properties(properties)
+                    .run();
+            return new EmbeddedApp(postgres, context);
+        } catch (RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get application base URI
+     *
+     * @return base URI
+     */
+    URI getBaseUri() {
+        var port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return URI.create("http://localhost:" + port);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            postgres.close();
+        }
+    }
+}
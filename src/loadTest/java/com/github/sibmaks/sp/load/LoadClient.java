@@ -0,0 +1,227 @@
+package com.github.sibmaks.sp.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.constant.ApiResultCode;
+import com.github.sibmaks.sp.api.constant.CommonConstant;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Scrum poker API client, every request latency is recorded into current {@link LoadStats}
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class LoadClient {
+    /**
+     * Request timeout, longer than room long-poll timeout
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(45);
+    /**
+     * Endpoint name of web socket handshake
+     */
+    private static final String WS_ENDPOINT = "ws";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private volatile LoadStats stats;
+
+    LoadClient(HttpClient httpClient, ObjectMapper objectMapper, URI baseUri, LoadStats stats) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.stats = stats;
+    }
+
+    /**
+     * Switch statistics to next load test phase
+     *
+     * @param stats phase statistics
+     */
+    void setStats(LoadStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Execute API request
+     *
+     * @param path endpoint path, e.g. {@code /api/room/getRoom}
+     * @param sessionId session identifier or null for anonymous request
+     * @param eTag known entity tag, passed as If-None-Match header if not null
+     * @param body request body
+     * @return API response
+     * @throws IOException on network error
+     * @throws InterruptedException if thread was interrupted
+     */
+    Response post(String path, String sessionId, String eTag, Object body) throws IOException, InterruptedException {
+        var builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (sessionId != null) {
+            builder.header(CommonConstant.HEADER_SESSION_ID, sessionId);
+        }
+        if (eTag != null) {
+            builder.header("If-None-Match", eTag);
+        }
+        var endpoint = path.substring(path.lastIndexOf('/') + 1);
+        var startedAt = System.nanoTime();
+        HttpResponse<byte[]> httpResponse;
+        try {
+            httpResponse = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - startedAt, false);
+            throw e;
+        }
+        var latency = System.nanoTime() - startedAt;
+
+        var status = httpResponse.statusCode();
+        JsonNode json = null;
+        if (httpResponse.body().length > 0) {
+            json = objectMapper.readTree(httpResponse.body());
+        }
+        var resultCode = json == null ? null : json.path("resultCode").asText(null);
+        var response = new Response(
+                status,
+                resultCode,
+                json,
+                httpResponse.headers().firstValue(CommonConstant.HEADER_SESSION_ID).orElse(null),
+                httpResponse.headers().firstValue("ETag").orElse(null)
+        );
+        stats.record(endpoint, latency, response.isOk() || response.isNotModified());
+        return response;
+    }
+
+    /**
+     * Record latency of client side operation, e.g. room change delivery
+     *
+     * @param name operation name
+     * @param nanos operation latency in nanoseconds
+     */
+    void record(String name, long nanos) {
+        stats.record(name, nanos, true);
+    }
+
+    /**
+     * Open web socket, handshake latency is recorded as {@code ws} endpoint.
+     * Session identifier is passed in header, as browser passes it in cookie.
+     *
+     * @param path endpoint path with query, e.g. {@code /api/room/ws?roomId=1}
+     * @param sessionId session identifier
+     * @param onMessage received message handler
+     * @param onClose handler of closed or failed connection
+     * @return opened web socket
+     * @throws IOException if connection failed
+     * @throws InterruptedException if thread was interrupted
+     */
+    WebSocket connect(String path, String sessionId, Consumer<JsonNode> onMessage, Runnable onClose)
+            throws IOException, InterruptedException {
+        var uri = baseUri.resolve(path);
+        var scheme = "https".equals(uri.getScheme()) ? "wss" : "ws";
+        var socketUri = URI.create(scheme + uri.toString().substring(uri.getScheme().length()));
+        var startedAt = System.nanoTime();
+        try {
+            var socket = httpClient.newWebSocketBuilder()
+                    .header(CommonConstant.HEADER_SESSION_ID, sessionId)
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .buildAsync(socketUri, new JsonListener(onMessage, onClose))
+                    .get();
+            stats.record(WS_ENDPOINT, System.nanoTime() - startedAt, true);
+            return socket;
+        } catch (ExecutionException e) {
+            stats.record(WS_ENDPOINT, System.nanoTime() - startedAt, false);
+            throw new IOException("Web socket connection failed", e.getCause());
+        }
+    }
+
+    /**
+     * Send message to web socket and wait until it is written
+     *
+     * @param socket opened web socket
+     * @param message message
+     * @throws IOException if message can't be sent
+     */
+    void send(WebSocket socket, Object message) throws IOException {
+        try {
+            socket.sendText(objectMapper.writeValueAsString(message), true).join();
+        } catch (CompletionException e) {
+            throw new IOException("Web socket message sending failed", e.getCause());
+        }
+    }
+
+    /**
+     * Web socket listener, collects text frames and passes parsed JSON messages to handler
+     */
+    private class JsonListener implements WebSocket.Listener {
+        private final Consumer<JsonNode> onMessage;
+        private final Runnable onClose;
+        private final StringBuilder text = new StringBuilder();
+
+        JsonListener(Consumer<JsonNode> onMessage, Runnable onClose) {
+            this.onMessage = onMessage;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                try {
+                    onMessage.accept(objectMapper.readTree(text.toString()));
+                } catch (IOException e) {
+                    // malformed message is skipped
+                }
+                text.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            onClose.run();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            onClose.run();
+        }
+    }
+
+    /**
+     * API response
+     *
+     * @param status http status
+     * @param resultCode API result code, null for empty body
+     * @param body response body, null for empty body
+     * @param sessionId session identifier header
+     * @param eTag entity tag header
+     */
+    record Response(int status, String resultCode, JsonNode body, String sessionId, String eTag) {
+
+        boolean isOk() {
+            return status == 200 && ApiResultCode.OK.code.equals(resultCode);
+        }
+
+        boolean isNotModified() {
+            return status == 304;
+        }
+
+        boolean isTryAgain() {
+            return ApiResultCode.TRY_AGAIN.code.equals(resultCode);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.sibmaks.sp.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counters per endpoint for one phase of load test
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class LoadStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_IN_MILLI = 1000.0;
+
+    private final String phase;
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final long startedAt = System.nanoTime();
+    private volatile long finishedAt;
+
+    LoadStats(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Record request latency
+     *
+     * @param endpoint endpoint name
+     * @param nanos request latency in nanoseconds
+     * @param success request result, error responses are counted separately and included into latency
+     */
+    void record(String endpoint, long nanos, boolean success) {
+        histograms.computeIfAbsent(endpoint, it -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, it -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    /**
+     * Mark phase as finished, phase duration is used for throughput calculation
+     */
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    /**
+     * Print phase summary and write full latency distribution of each endpoint into {@code <phase>-<endpoint>.hgrm}
+     *
+     * @param out summary output
+     * @param reportDir directory for latency distributions
+     * @throws IOException if distribution can't be written
+     */
+    void report(PrintStream out, Path reportDir) throws IOException {
+        var end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+        var seconds = (end - startedAt) / 1e9;
+        out.printf("%n== %s: %.1f s ==%n", phase, seconds);
+        out.printf("%-12s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Files.createDirectories(reportDir);
+        for (var entry : new TreeMap<>(histograms).entrySet()) {
+            var endpoint = entry.getKey();
+            var histogram = entry.getValue().copy();
+            var errorCount = errors.getOrDefault(endpoint, new LongAdder()).sum();
+            out.printf("%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint,
+                    histogram.getTotalCount(),
+                    errorCount,
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / MICROS_IN_MILLI,
+                    histogram.getValueAtPercentile(90) / MICROS_IN_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_IN_MILLI,
+                    histogram.getValueAtPercentile(99.9) / MICROS_IN_MILLI,
+                    histogram.getMaxValue() / MICROS_IN_MILLI);
+            var file = reportDir.resolve(phase + "-" + endpoint + ".hgrm");
+            try (var fileOut = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(fileOut, MICROS_IN_MILLI);
+            }
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.github.sibmaks.sp.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.entity.RoomDelta;
+import com.github.sibmaks.sp.api.request.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator: registers users, creates rooms and simulates room page clients, virtual threads per client.
+ * Participants receive room changes in the way set by {@link Mode} and vote with random delay after voting is started,
+ * room authors start and stop voting rounds. Time from round start or stop request to its receiving by each client
+ * is recorded as {@code round}.
+ * <p>
+ * Settings are passed as system properties:
+ * <ul>
+ *     <li>{@code load.url} - application base URL, if not set application is started with embedded Postgres</li>
+ *     <li>{@code load.profiles} - profiles of started application, e.g. {@code virtual}</li>
+ *     <li>{@code load.mode} - way of room changes receiving: {@code socket}, {@code pollRoom} or {@code getRoom},
+ *     default {@code socket}, see {@link Mode}</li>
+ *     <li>{@code load.users} - amount of users, default 100</li>
+ *     <li>{@code load.rooms} - amount of rooms, default 10</li>
+ *     <li>{@code load.duration} - duration of polling and voting phase in seconds, default 60</li>
+ *     <li>{@code load.pollInterval} - room polling interval and pause before socket reopening in milliseconds, default 3000</li>
+ *     <li>{@code load.round} - voting round duration in seconds, default 30</li>
+ *     <li>{@code load.reportDir} - directory for latency distributions, default {@code build/reports/load}</li>
+ * </ul>
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public class LoadTest {
+    private static final String API_USER = "/api/user/";
+    private static final String API_ROOM = "/api/room/";
+    private static final List<Integer> ROLES = List.of(1, 2, 3, 4);
+    private static final String[] SCORES = {"0", "1/2", "1", "2", "3", "5", "8", "13", "?", "☕"};
+    private static final long TRY_AGAIN_PAUSE = 100;
+    private static final long VOTE_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final String ROUND = "round";
+
+    private final LoadClient client;
+    private final Mode mode;
+    private final int users;
+    private final int rooms;
+    private final Duration duration;
+    private final Duration pollInterval;
+    private final Duration round;
+    /**
+     * Time of last voting round start or stop request per room
+     */
+    private final Map<Long, Long> roundChangedAt = new ConcurrentHashMap<>();
+
+    LoadTest(LoadClient client, Mode mode, int users, int rooms, Duration duration, Duration pollInterval,
+             Duration round) {
+        this.client = client;
+        this.mode = mode;
+        this.users = users;
+        this.rooms = rooms;
+        this.duration = duration;
+        this.pollInterval = pollInterval;
+        this.round = round;
+    }
+
+    /**
+     * Load test entry point
+     *
+     * @param args not used, see class description for settings
+     * @throws Exception on load test failure
+     */
+    public static void main(String[] args) throws Exception {
+        var url = System.getProperty("load.url");
+        var reportDir = Path.of(System.getProperty("load.reportDir", "build/reports/load"));
+        var setupStats = new LoadStats("setup");
+        var runStats = new LoadStats("run");
+
+        try (var app = url == null ? EmbeddedApp.start(System.getProperty("load.profiles", "")) : null;
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var baseUri = app == null ? URI.create(url) : app.getBaseUri();
+            var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            var client = new LoadClient(httpClient, new ObjectMapper(), baseUri, setupStats);
+            var loadTest = new LoadTest(
+                    client,
+                    Mode.of(System.getProperty("load.mode", "socket")),
+                    Integer.getInteger("load.users", 100),
+                    Integer.getInteger("load.rooms", 10),
+                    Duration.ofSeconds(Integer.getInteger("load.duration", 60)),
+                    Duration.ofMillis(Integer.getInteger("load.pollInterval", 3000)),
+                    Duration.ofSeconds(Integer.getInteger("load.round", 30))
+            );
+            System.out.printf("Load test of %s: %d users, %d rooms, %s mode%n", baseUri, loadTest.users, loadTest.rooms,
+                    loadTest.mode);
+
+            var clients = loadTest.setUp();
+            setupStats.finish();
+
+            client.setStats(runStats);
+            loadTest.run(clients);
+            runStats.finish();
+        }
+
+        setupStats.report(System.out, reportDir);
+        runStats.report(System.out, reportDir);
+        System.out.printf("%nLatency distributions are written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    /**
+     * Register users, create rooms by first {@code rooms} users and join other users to rooms
+     *
+     * @return simulated room clients
+     * @throws InterruptedException if thread was interrupted
+     */
+    private List<RoomClient> setUp() throws InterruptedException {
+        if (rooms < 1 || users < rooms) {
+            throw new IllegalArgumentException("At least one room and one user per room are required");
+        }
+        var runId = Long.toString(System.currentTimeMillis(), 36);
+        var sessionIds = invokeAll(users, i -> register(runId, i));
+
+        var roomIds = invokeAll(rooms, i -> createRoom(sessionIds.get(i), runId, i));
+
+        var clients = new ArrayList<RoomClient>(users);
+        for (int i = 0; i < rooms; i++) {
+            clients.add(new RoomClient(sessionIds.get(i), roomIds.get(i), true));
+        }
+        var participants = invokeAll(users - rooms, i -> {
+            var userIndex = rooms + i;
+            var roomId = roomIds.get(userIndex % rooms);
+            join(sessionIds.get(userIndex), roomId, ROLES.get(userIndex % ROLES.size()));
+            return new RoomClient(sessionIds.get(userIndex), roomId, false);
+        });
+        clients.addAll(participants);
+        return clients;
+    }
+
+    private String register(String runId, int index) throws IOException, InterruptedException {
+        var request = new RegistrationUserRequest(
+                "load-" + runId + "-" + index + "@example.com",
+                "password-" + index,
+                "First" + index,
+                "Last" + index
+        );
+        while (true) {
+            var response = client.post(API_USER + "registration", null, null, request);
+            if (response.isOk()) {
+                return response.sessionId();
+            }
+            if (!response.isTryAgain()) {
+                throw new IllegalStateException("Registration failed: " + response.resultCode());
+            }
+            Thread.sleep(TRY_AGAIN_PAUSE);
+        }
+    }
+
+    private long createRoom(String sessionId, String runId, int index) throws IOException, InterruptedException {
+        var request = new CreateRoomRequest("Load room " + runId + "-" + index, null, ROLES, 1, ROLES.get(0));
+        var response = client.post(API_ROOM + "createRoom", sessionId, null, request);
+        if (!response.isOk()) {
+            throw new IllegalStateException("Room creation failed: " + response.resultCode());
+        }
+        return response.body().path("roomId").asLong();
+    }
+
+    private void join(String sessionId, long roomId, int roleId) throws IOException, InterruptedException {
+        var response = client.post(API_ROOM + "join", sessionId, null, new JoinRoomRequest(roomId, roleId, null));
+        if (!response.isOk()) {
+            throw new IllegalStateException("Room join failed: " + response.resultCode());
+        }
+    }
+
+    /**
+     * Run room clients, each client in own virtual thread, until duration is passed
+     *
+     * @param clients room clients
+     * @throws InterruptedException if thread was interrupted
+     */
+    private void run(List<RoomClient> clients) throws InterruptedException {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var tasks = new ArrayList<Callable<Void>>();
+        for (var roomClient : clients) {
+            tasks.add(() -> {
+                roomClient.receive(deadline);
+                return null;
+            });
+            tasks.add(() -> {
+                roomClient.vote(deadline);
+                return null;
+            });
+            if (roomClient.author) {
+                tasks.add(() -> {
+                    roomClient.lead(deadline);
+                    return null;
+                });
+            }
+        }
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var future : executor.invokeAll(tasks)) {
+                getResult(future);
+            }
+        }
+    }
+
+    private <T> List<T> invokeAll(int count, IndexedTask<T> task) throws InterruptedException {
+        var tasks = new ArrayList<Callable<T>>(count);
+        for (int i = 0; i < count; i++) {
+            var index = i;
+            tasks.add(() -> task.call(index));
+        }
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var results = new ArrayList<T>(count);
+            for (var future : executor.invokeAll(tasks)) {
+                results.add(getResult(future));
+            }
+            return results;
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test task failed", e.getCause());
+        }
+    }
+
+    private static void sleepUntil(long at, long deadline) throws InterruptedException {
+        var pause = Math.min(at, deadline) - System.nanoTime();
+        if (pause > 0) {
+            Thread.sleep(Duration.ofNanos(pause));
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<T> {
+        T call(int index) throws Exception;
+    }
+
+    /**
+     * Way of room changes receiving
+     */
+    enum Mode {
+        /**
+         * Web socket {@code /api/room/ws} with room deltas, votes and voting changes are sent to socket,
+         * as room page does. Closed socket is opened again after poll interval
+         */
+        SOCKET,
+        /**
+         * Long-poll {@code /api/room/pollRoom} with known room version, next request is sent right after response,
+         * as room page does without web socket and event source
+         */
+        POLL_ROOM,
+        /**
+         * Periodic {@code /api/room/getRoom} with ETag each poll interval, as API clients do
+         */
+        GET_ROOM;
+
+        static Mode of(String value) {
+            for (var mode : values()) {
+                if (mode.toString().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown load mode: " + value);
+        }
+
+        @Override
+        public String toString() {
+            var name = name().toLowerCase(Locale.ROOT);
+            var separator = name.indexOf('_');
+            return separator < 0 ? name :
+                    name.substring(0, separator) + Character.toUpperCase(name.charAt(separator + 1)) +
+                            name.substring(separator + 2);
+        }
+    }
+
+    /**
+     * Simulated room page of one user
+     */
+    private class RoomClient {
+        private final String sessionId;
+        private final long roomId;
+        private final boolean author;
+        private volatile boolean voting;
+        private volatile boolean voted;
+        private volatile WebSocket socket;
+
+        RoomClient(String sessionId, long roomId, boolean author) {
+            this.sessionId = sessionId;
+            this.roomId = roomId;
+            this.author = author;
+        }
+
+        /**
+         * Receive room changes until deadline in the way set by load test mode
+         */
+        void receive(long deadline) throws InterruptedException {
+            switch (mode) {
+                case SOCKET -> listen(deadline);
+                case POLL_ROOM -> longPoll(deadline);
+                case GET_ROOM -> poll(deadline);
+            }
+        }
+
+        /**
+         * Keep room web socket opened and apply received room deltas
+         */
+        private void listen(long deadline) throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                var closed = new CountDownLatch(1);
+                try {
+                    socket = client.connect(API_ROOM + "ws?roomId=" + roomId, sessionId, this::apply,
+                            closed::countDown);
+                    closed.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (IOException e) {
+                    // error is recorded by client, page opens socket again after interval
+                }
+                var actual = socket;
+                socket = null;
+                if (actual != null) {
+                    actual.abort();
+                }
+                sleepUntil(System.nanoTime() + pollInterval.toNanos(), deadline);
+            }
+        }
+
+        /**
+         * Long-poll room since known version
+         */
+        private void longPoll(long deadline) throws InterruptedException {
+            var version = 0L;
+            while (System.nanoTime() < deadline) {
+                try {
+                    var response = client.post(API_ROOM + "pollRoom", sessionId, null,
+                            new PollRoomRequest(roomId, version));
+                    if (response.isOk()) {
+                        var roomInfo = response.body().path("roomInfo");
+                        version = roomInfo.path("version").asLong();
+                        update(roomInfo);
+                        continue;
+                    }
+                } catch (IOException e) {
+                    // error is recorded by client, page retries after interval
+                }
+                sleepUntil(System.nanoTime() + pollInterval.toNanos(), deadline);
+            }
+        }
+
+        /**
+         * Poll room with If-None-Match each poll interval
+         */
+        private void poll(long deadline) throws InterruptedException {
+            var interval = pollInterval.toNanos();
+            String eTag = null;
+
+            sleepUntil(System.nanoTime() + ThreadLocalRandom.current().nextLong(interval), deadline);
+            while (System.nanoTime() < deadline) {
+                try {
+                    var response = client.post(API_ROOM + "getRoom", sessionId, eTag, new GetRoomRequest(roomId));
+                    if (response.isOk()) {
+                        eTag = response.eTag();
+                        update(response.body().path("roomInfo"));
+                    }
+                } catch (IOException e) {
+                    // error is recorded by client, page retries after interval
+                }
+                sleepUntil(System.nanoTime() + interval, deadline);
+            }
+        }
+
+        /**
+         * Apply room delta received from web socket
+         */
+        private void apply(JsonNode delta) {
+            switch (delta.path("type").asText()) {
+                case RoomDelta.TYPE_ROOM -> update(delta.path("roomInfo"));
+                case RoomDelta.TYPE_STARTED -> {
+                    voted = false;
+                    setVoting(true);
+                }
+                case RoomDelta.TYPE_REVEALED -> setVoting(false);
+                default -> {
+                    // other participants votes don't change client behaviour
+                }
+            }
+        }
+
+        private void update(JsonNode roomInfo) {
+            voted = roomInfo.path("score").isTextual();
+            setVoting(roomInfo.path("voting").asBoolean());
+        }
+
+        private void setVoting(boolean actual) {
+            if (voting == actual) {
+                return;
+            }
+            voting = actual;
+            var changedAt = roundChangedAt.get(roomId);
+            if (changedAt != null) {
+                client.record(ROUND, System.nanoTime() - changedAt);
+            }
+        }
+
+        /**
+         * Vote with random delay while voting is in progress
+         */
+        void vote(long deadline) throws InterruptedException {
+            var random = ThreadLocalRandom.current();
+            var maxVoteDelay = round.toNanos() / 2;
+            while (System.nanoTime() < deadline) {
+                if (voting && !voted) {
+                    sleepUntil(System.nanoTime() + random.nextLong(maxVoteDelay), deadline);
+                    if (voting && !voted && System.nanoTime() < deadline) {
+                        voted = sendVote(SCORES[random.nextInt(SCORES.length)]);
+                    }
+                }
+                sleepUntil(System.nanoTime() + VOTE_CHECK_INTERVAL, deadline);
+            }
+        }
+
+        private boolean sendVote(String score) throws InterruptedException {
+            try {
+                return sendToSocket(new RoomSocketRequest(RoomSocketRequest.TYPE_VOTE, score, false)) ||
+                        client.post(API_ROOM + "vote", sessionId, null, new VoteRoomRequest(roomId, score)).isOk();
+            } catch (IOException e) {
+                // error is recorded by client, vote is retried
+                return false;
+            }
+        }
+
+        /**
+         * Start and stop voting rounds as room author
+         */
+        void lead(long deadline) throws InterruptedException {
+            var halfRound = round.toNanos() / 2;
+            var start = true;
+            while (System.nanoTime() < deadline) {
+                roundChangedAt.put(roomId, System.nanoTime());
+                try {
+                    if (!sendToSocket(new RoomSocketRequest(RoomSocketRequest.TYPE_SET_VOTING, null, start))) {
+                        client.post(API_ROOM + "setVoting", sessionId, null, new SetVotingRoomRequest(roomId, start));
+                    }
+                } catch (IOException e) {
+                    // error is recorded by client, author retries in next round
+                }
+                start = !start;
+                sleepUntil(System.nanoTime() + halfRound, deadline);
+            }
+        }
+
+        /**
+         * Send message to room web socket if it is opened, as room page does
+         *
+         * @return true - message is sent, false - socket is not opened
+         */
+        private synchronized boolean sendToSocket(RoomSocketRequest request) throws IOException {
+            var actual = socket;
+            if (actual == null || actual.isOutputClosed()) {
+                return false;
+            }
+            client.send(actual, request);
+            return true;
+        }
+    }
+}
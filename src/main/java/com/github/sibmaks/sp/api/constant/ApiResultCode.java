@@ -14,7 +14,8 @@ public enum ApiResultCode {
     NOT_FOUND("NotFound"),
     VALIDATION_ERROR("ValidationError"),
     WRONG_SECRET_CODE("WrongSecretCode"),
-    LOGIN_IS_BUSY("LoginIsBusy");
+    LOGIN_IS_BUSY("LoginIsBusy"),
+    TRY_AGAIN("TryAgain");
 
     /**
      * Rest result code
@@ -0,0 +1,53 @@
+package com.github.sibmaks.sp.api.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Room change message, pushed to room web socket clients.
+ * Only fields related to the change type are filled.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomDelta implements Serializable {
+    /**
+     * Whole room info for viewer, sent on connection and on join or leave
+     */
+    public static final String TYPE_ROOM = "room";
+    /**
+     * User voted in current round
+     */
+    public static final String TYPE_VOTED = "voted";
+    /**
+     * New voting round started, all scores are reset
+     */
+    public static final String TYPE_STARTED = "started";
+    /**
+     * Voting round finished, scores are revealed
+     */
+    public static final String TYPE_REVEALED = "revealed";
+    /**
+     * Client message processing failed
+     */
+    public static final String TYPE_ERROR = "error";
+
+    private String type;
+    private Long version;
+    private Long userId;
+    private Boolean voted;
+    private Map<Long, String> scores;
+    private RoomInfo roomInfo;
+    private String resultCode;
+}
@@ -1,9 +1,15 @@
 package com.github.sibmaks.sp.api.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.github.sibmaks.sp.api.serializer.GroupInfosSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.List;
@@ -21,8 +27,17 @@ import java.util.List;
 public class RoomInfo implements Serializable {
     private long id;
     private String name;
+    private long version;
     private boolean voting;
     private boolean author;
     private String score;
+    @JsonSerialize(using = GroupInfosSerializer.class)
     private List<GroupInfo> groupInfos;
+    /**
+     * Serialized {@link #groupInfos} shared by room state, written instead of list if it is set
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient SerializableString groupInfosJson;
 }
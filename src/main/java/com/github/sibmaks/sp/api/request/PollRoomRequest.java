@@ -0,0 +1,24 @@
+package com.github.sibmaks.sp.api.request;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Poll room request: wait for room change since known room version
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class PollRoomRequest extends StandardRequest {
+    @Min(1)
+    private long roomId;
+    @Min(0)
+    private long sinceVersion;
+}
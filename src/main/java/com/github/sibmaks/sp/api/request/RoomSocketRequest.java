@@ -0,0 +1,31 @@
+package com.github.sibmaks.sp.api.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message sent by client to room web socket
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RoomSocketRequest extends StandardRequest {
+    /**
+     * Vote in current round, score should be passed
+     */
+    public static final String TYPE_VOTE = "vote";
+    /**
+     * Change voting state of room, allowed for room author only
+     */
+    public static final String TYPE_SET_VOTING = "setVoting";
+
+    private String type;
+    private String score;
+    private boolean voting;
+}
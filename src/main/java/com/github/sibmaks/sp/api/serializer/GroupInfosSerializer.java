@@ -0,0 +1,36 @@
+package com.github.sibmaks.sp.api.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.sibmaks.sp.api.entity.GroupInfo;
+import com.github.sibmaks.sp.api.entity.RoomInfo;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serializer of {@link RoomInfo#getGroupInfos()} property.
+ * If room info has groups already serialized in room state, they are written as is,
+ * UTF-8 bytes are copied without re-encoding if generator supports it.
+ * Otherwise, groups are serialized as usual list.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public class GroupInfosSerializer extends StdSerializer<List<GroupInfo>> {
+
+    public GroupInfosSerializer() {
+        super(TypeFactory.defaultInstance().constructCollectionType(List.class, GroupInfo.class));
+    }
+
+    @Override
+    public void serialize(List<GroupInfo> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen.currentValue() instanceof RoomInfo roomInfo && roomInfo.getGroupInfosJson() != null) {
+            gen.writeRawValue(roomInfo.getGroupInfosJson());
+            return;
+        }
+        provider.defaultSerializeValue(value, gen);
+    }
+}
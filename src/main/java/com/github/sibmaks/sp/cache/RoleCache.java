@@ -0,0 +1,112 @@
+package com.github.sibmaks.sp.cache;
+
+import com.github.sibmaks.sp.domain.Role;
+import com.github.sibmaks.sp.dto.RoomRoleDto;
+import com.github.sibmaks.sp.repository.RoleRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read-through in-memory cache of roles dictionary and rooms roles.
+ * Roles dictionary is static, rooms roles never change after room creation,
+ * so cached values are immutable and room roles are kept until room expired.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoleCache {
+    private final RoleRepository roleRepository;
+    private final ConcurrentMap<Long, RoomRoles> roomRoles = new ConcurrentHashMap<>();
+    private volatile List<Role> roles;
+
+    /**
+     * Get all available roles ordered by identifier
+     *
+     * @return immutable list of roles
+     */
+    public List<Role> getRoles() {
+        var cached = roles;
+        if (cached == null) {
+            cached = List.copyOf(roleRepository.findAllByOrderById());
+            roles = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Get roles by identifiers. Unknown identifiers are skipped.
+     *
+     * @param roleIds roles identifiers
+     * @return immutable list of roles ordered by identifier
+     */
+    public List<Role> getRoles(Collection<Integer> roleIds) {
+        return getRoles().stream()
+                .filter(it -> roleIds.contains(it.getId()))
+                .toList();
+    }
+
+    /**
+     * Get roles allowed in room.
+     * If room not exists or expired then empty list will be returned, empty result is not cached.
+     *
+     * @param roomId room identifier
+     * @return immutable list of roles ordered by identifier
+     */
+    public List<Role> getRoomRoles(long roomId) {
+        var cached = roomRoles.get(roomId);
+        var now = System.currentTimeMillis();
+        if (cached != null) {
+            if (cached.getExpired() >= now) {
+                return cached.getRoles();
+            }
+            roomRoles.remove(roomId, cached);
+            return List.of();
+        }
+        var loaded = roleRepository.findAllDtoForRoom(roomId);
+        if (loaded.isEmpty()) {
+            return List.of();
+        }
+        var entry = new RoomRoles(
+                loaded.stream().map(RoomRoleDto::getRole).toList(),
+                loaded.getFirst().getExpired().getTime()
+        );
+        roomRoles.put(roomId, entry);
+        return entry.getRoles();
+    }
+
+    /**
+     * Remove roles of expired rooms
+     */
+    public void evictExpired() {
+        var now = System.currentTimeMillis();
+        roomRoles.values().removeIf(it -> it.getExpired() < now);
+    }
+
+    /**
+     * Remove all cached values, next reads load them again
+     */
+    public void evictAll() {
+        roles = null;
+        roomRoles.clear();
+    }
+
+    /**
+     * Cached room roles
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class RoomRoles {
+        private final List<Role> roles;
+        private final long expired;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.sibmaks.sp.cache;
+
+import com.github.sibmaks.sp.conf.SessionCacheProperties;
+import com.github.sibmaks.sp.domain.ClientSession;
+import com.github.sibmaks.sp.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache of client sessions with session's users.
+ * Least recently used session is evicted when cache is full.
+ * Cached session is valid until cache ttl or session valid to date, whichever comes first.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Component
+public class SessionCache {
+    private final SessionCacheProperties sessionCacheProperties;
+    private final Map<String, CachedSession> sessions;
+
+    /**
+     * Create cache bounded by cache properties
+     *
+     * @param sessionCacheProperties session cache properties
+     */
+    @Autowired
+    public SessionCache(SessionCacheProperties sessionCacheProperties) {
+        this.sessionCacheProperties = sessionCacheProperties;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSession> eldest) {
+                return size() > sessionCacheProperties.getMaxSize();
+            }
+        };
+    }
+
+    /**
+     * Get cached session.
+     * If session not cached or expired then null will be returned
+     *
+     * @param sessionId session identifier
+     * @return cached session or null
+     */
+    public synchronized CachedSession get(String sessionId) {
+        var cached = sessions.get(sessionId);
+        if (cached != null && cached.getExpiresAt() <= System.currentTimeMillis()) {
+            sessions.remove(sessionId);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Put session with session's user into cache.
+     * Session without valid to date or already expired session is not cached.
+     *
+     * @param session client session
+     * @param user session's user
+     */
+    public synchronized void put(ClientSession session, User user) {
+        if (session.getValidTo() == null) {
+            return;
+        }
+        var expiresAt = Math.min(
+                session.getValidTo().getTime(),
+                System.currentTimeMillis() + sessionCacheProperties.getTtl().toMillis()
+        );
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        sessions.put(session.getSessionId(), new CachedSession(session, user, expiresAt));
+    }
+
+    /**
+     * Remove session from cache
+     *
+     * @param sessionId session identifier
+     */
+    public synchronized void evict(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Remove all user's sessions from cache.
+     * Used when user data was changed.
+     *
+     * @param userId user identifier
+     */
+    public synchronized void evictUser(long userId) {
+        sessions.values().removeIf(it -> it.getUser().getId() == userId);
+    }
+
+    /**
+     * Get amount of cached sessions
+     *
+     * @return cached sessions count
+     */
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Cached session entry
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedSession {
+        private final ClientSession session;
+        private final User user;
+        private final long expiresAt;
+    }
+}
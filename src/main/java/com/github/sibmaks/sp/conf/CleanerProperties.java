@@ -0,0 +1,33 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.cleaner")
+public class CleanerProperties {
+    /**
+     * Max amount of expired items removed in one transaction.
+     */
+    private int batchSize = 1000;
+    /**
+     * Pause between batches, lets other transactions take locks on cleaned tables.
+     */
+    private Duration batchPause = Duration.ofMillis(100);
+    /**
+     * Execute cleanup on leader instance only, leadership is held by Postgres advisory lock across runs.
+     */
+    private boolean clusterLock = true;
+}
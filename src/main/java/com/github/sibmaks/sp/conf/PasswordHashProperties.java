@@ -0,0 +1,28 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.password-hash")
+public class PasswordHashProperties {
+    /**
+     * Amount of password hashing threads, 0 - amount of available processors.
+     */
+    private int threads = 0;
+    /**
+     * Max amount of password hashing tasks waiting for free thread, 0 - amount of hashing threads.
+     * If queue is full then TryAgain result code is returned.
+     */
+    private int queueSize = 0;
+}
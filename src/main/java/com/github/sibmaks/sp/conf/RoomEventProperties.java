@@ -0,0 +1,29 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.room.events")
+public class RoomEventProperties {
+    /**
+     * Room event stream time to live, after that client should reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+    /**
+     * Max time of parked room long-poll request, after that actual room info is returned.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,31 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Room change notifications between application instances, made by Postgres LISTEN/NOTIFY.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.room.notify")
+public class RoomNotifyProperties {
+    /**
+     * Listen room changes made by other application instances.
+     */
+    private boolean enabled = true;
+    /**
+     * Delay before listener connection reopening after failure.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,27 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.room.state")
+public class RoomStateProperties {
+    /**
+     * Max time to live of in-memory room state.
+     * Local changes are applied immediately, changes made by other application instances are seen after
+     * room change notification, or after ttl if notifications are disabled or missed.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+}
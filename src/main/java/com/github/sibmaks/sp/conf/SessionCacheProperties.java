@@ -0,0 +1,29 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.session.cache")
+public class SessionCacheProperties {
+    /**
+     * Max amount of cached sessions, 0 - cache disabled.
+     */
+    private int maxSize = 10000;
+    /**
+     * Max time to live of cached session. Session is never cached longer than it valid.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,42 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.session")
+public class SessionProperties {
+    /**
+     * Session mode: sessions stored in DB or stateless signed tokens.
+     */
+    private Mode mode = Mode.DB;
+    /**
+     * Secret key of session tokens signature, required in TOKEN mode.
+     * Should be the same on all application instances.
+     */
+    private String tokenSecret;
+
+    /**
+     * Session mode
+     */
+    public enum Mode {
+        /**
+         * Session is stored in DB and checked by DB query
+         */
+        DB,
+        /**
+         * Session is HMAC signed token with user identifier and valid to date, checked without DB
+         */
+        TOKEN
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.sibmaks.sp.conf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatsProperties {
+    /**
+     * Collect amount and time of SQL statements per HTTP request.
+     */
+    private boolean enabled = true;
+    /**
+     * Amount of SQL statements per request, request is logged if it is exceeded.
+     */
+    private int statementThreshold = 10;
+    /**
+     * Total SQL statements time per request, request is logged if it is exceeded.
+     */
+    private Duration timeThreshold = Duration.ofMillis(200);
+}
@@ -0,0 +1,30 @@
+package com.github.sibmaks.sp.conf;
+
+import com.github.sibmaks.sp.handler.RoomHandshakeInterceptor;
+import com.github.sibmaks.sp.handler.RoomWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Web socket configuration
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final RoomWebSocketHandler roomWebSocketHandler;
+    private final RoomHandshakeInterceptor roomHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(roomWebSocketHandler, "/api/room/ws")
+                .addInterceptors(roomHandshakeInterceptor);
+    }
+}
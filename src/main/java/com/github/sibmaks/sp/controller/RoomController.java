@@ -3,23 +3,26 @@ package com.github.sibmaks.sp.controller;
 import com.github.sibmaks.sp.api.constant.CommonConstant;
 import com.github.sibmaks.sp.api.request.*;
 import com.github.sibmaks.sp.api.response.*;
-import com.github.sibmaks.sp.domain.ClientSession;
-import com.github.sibmaks.sp.domain.Participant;
 import com.github.sibmaks.sp.domain.Room;
 import com.github.sibmaks.sp.domain.User;
 import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
 import com.github.sibmaks.sp.exception.ValidationErrorException;
+import com.github.sibmaks.sp.handler.CurrentUser;
+import com.github.sibmaks.sp.handler.CurrentUserArgumentResolver;
+import com.github.sibmaks.sp.service.RoomEventService;
+import com.github.sibmaks.sp.service.RoomMetrics;
 import com.github.sibmaks.sp.service.RoomService;
-import com.github.sibmaks.sp.service.SessionService;
-import com.github.sibmaks.sp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Rest controller for operation with rooms
@@ -31,23 +34,22 @@ import java.util.List;
 @RequestMapping("/api/room/")
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class RoomController {
-    private final SessionService sessionService;
-    private final UserService userService;
     private final RoomService roomService;
+    private final RoomEventService roomEventService;
+    private final RoomMetrics roomMetrics;
 
     /**
      * Api endpoint for room creation.
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link CreateRoomRequest}
      * @see CreateRoomResponse
      * @return response with new room identifier or response with error description
      */
     @PostMapping(value = "createRoom", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse createRoom(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse createRoom(@CurrentUser User user,
                                        @RequestBody @Validated CreateRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         var secretCode = request.getSecretCode();
         if(secretCode != null && (secretCode.length() < 4 || secretCode.length() > 128)) {
             throw new ValidationErrorException("secretCode", "size must be between 4 and 128");
@@ -61,15 +63,14 @@ public class RoomController {
      * Api endpoint for join user to specific room.
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link JoinRoomRequest}
      * @see JoinRoomResponse
      * @return response with identifier of room or response with error description
      */
     @PostMapping(value = "join", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse join(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse join(@CurrentUser User user,
                                        @RequestBody @Validated JoinRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         var room = roomService.joinRoom(user, request.getRoomId(), request.getRoleId(), request.getSecretCode());
         return new JoinRoomResponse(room);
     }
@@ -80,15 +81,14 @@ public class RoomController {
      *
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link LeaveRoomRequest}
      * @see StandardResponse
      * @return empty response or response with error description
      */
     @PostMapping(value = "leave", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse leave(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse leave(@CurrentUser User user,
                                        @RequestBody @Validated LeaveRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         roomService.leaveRoom(user, request.getRoomId());
         return new StandardResponse();
     }
@@ -100,15 +100,14 @@ public class RoomController {
      *
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link VoteRoomRequest}
      * @see StandardResponse
      * @return empty response or response with error description
      */
     @PostMapping(value = "vote", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse vote(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse vote(@CurrentUser User user,
                                        @RequestBody @Validated VoteRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         roomService.vote(user, request.getRoomId(), request.getScore());
         return new StandardResponse();
     }
@@ -120,57 +119,116 @@ public class RoomController {
      *
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link SetVotingRoomRequest}
      * @see GetRoomResponse
      * @return response with room info or response with error description
      */
     @PostMapping(value = "setVoting", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse setVoting(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse setVoting(@CurrentUser User user,
                                        @RequestBody @Validated SetVotingRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         var room = roomService.setVoting(user, request.getRoomId(), request.isVoting());
-        List<Participant> participants = roomService.getParticipants(room);
+        var participants = roomService.getParticipants(room);
         return new GetRoomResponse(user, room, participants);
     }
 
     /**
      * Api endpoint for get info about room.
      * User should belong to the room, NotFound result code will be returned otherwise.
-     * After successful execution room info will be returned.
+     * After successful execution room info will be returned with room version in ETag header.
+     * If passed If-None-Match header matches the actual room version then 304 Not Modified without body will be returned.
      *
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      *
-     * @param sessionId session identifier
+     * @param user current user
      * @param request API request DTO {@link GetRoomRequest}
+     * @param ifNoneMatch entity tags known by client
      * @see GetRoomResponse
      * @return response with room info or response with error description
      */
     @PostMapping(value = "getRoom", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public StandardResponse getRoom(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
-                                    @RequestBody @Validated GetRoomRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
-        var room = roomService.getRoom(user, request.getRoomId());
-        if(room == null) {
+    public ResponseEntity<StandardResponse> getRoom(@CurrentUser User user,
+                                                    @RequestBody @Validated GetRoomRequest request,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var roomState = roomService.getRoomState(user, request.getRoomId());
+        if(roomState == null) {
             throw new NotFoundException();
         }
-        List<Participant> participants = roomService.getParticipants(room);
-        return new GetRoomResponse(user, room, participants);
+        var eTag = roomState.getETag();
+        if(isMatched(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(roomMetrics.buildResponse(user, roomState));
     }
 
     /**
-     * Method get current session and extract user from session
-     * If session or user not found or invalid {@link UnauthorizedException} will be thrown
+     * Check is entity tag present in If-None-Match header value.
+     * Weak comparison is used, as for GET requests.
      *
-     * @param sessionId session identifier
-     * @return domain user, not null
+     * @param ifNoneMatch If-None-Match header value
+     * @param eTag actual entity tag
+     * @return true - entity tag matched, false otherwise
      */
-    private User getUserOrUnauthorized(String sessionId) {
-        try {
-            ClientSession session = sessionService.getSession(sessionId);
-            return userService.getUser(session.getUserId());
-        } catch (NotFoundException e) {
-            throw new UnauthorizedException();
+    private static boolean isMatched(String ifNoneMatch, String eTag) {
+        if(ifNoneMatch == null) {
+            return false;
+        }
+        for (var it : ifNoneMatch.split(",")) {
+            var tag = it.trim();
+            if(tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if("*".equals(tag) || eTag.equals(tag)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Api endpoint for long polling of room info.
+     * User should belong to the room, NotFound result code will be returned otherwise.
+     * Request is parked until room version differs from passed one or poll timeout is passed,
+     * after that actual room info will be returned.
+     *
+     * In case if session not exists or unauthorized then Unauthorized result code will be returned.
+     *
+     * @param user current user
+     * @param sessionId session identifier, checked again when parked request is completed
+     * @param request API request DTO {@link PollRoomRequest}
+     * @see GetRoomResponse
+     * @return deferred response with room info or response with error description
+     */
+    @PostMapping(value = "pollRoom", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<StandardResponse> pollRoom(@CurrentUser User user,
+                                                     @RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+                                                     @RequestBody @Validated PollRoomRequest request) {
+        return roomEventService.poll(user, sessionId, request.getRoomId(), request.getSinceVersion());
+    }
+
+    /**
+     * Api endpoint for subscribing on room changes (Server-Sent Events).
+     * User should belong to the room, NotFound result code will be returned otherwise.
+     * Room info is sent right after subscription and after each room change.
+     * Session identifier can be passed in header or in cookie, because browser event source can't set headers.
+     * Session is checked again before each event, subscription is completed after logout or session expiration.
+     *
+     * In case if session not exists or unauthorized then Unauthorized result code will be returned.
+     *
+     * @param user current user
+     * @param roomId room identifier
+     * @param request http servlet request
+     * @return room events emitter
+     */
+    @GetMapping(value = "{roomId}/events")
+    public SseEmitter events(@CurrentUser(cookie = true) User user,
+                             @PathVariable("roomId") long roomId,
+                             HttpServletRequest request) {
+        var sessionId = CurrentUserArgumentResolver.getSessionId(request, true);
+        return roomEventService.subscribe(user, sessionId, roomId);
     }
 }
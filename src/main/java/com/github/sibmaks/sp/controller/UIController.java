@@ -1,14 +1,11 @@
 package com.github.sibmaks.sp.controller;
 
-import com.github.sibmaks.sp.api.constant.CommonConstant;
-import com.github.sibmaks.sp.api.response.GetRoomResponse;
 import com.github.sibmaks.sp.domain.User;
-import com.github.sibmaks.sp.dto.RoomInfoDto;
-import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
+import com.github.sibmaks.sp.handler.CurrentUser;
+import com.github.sibmaks.sp.handler.CurrentUserArgumentResolver;
+import com.github.sibmaks.sp.service.RoomMetrics;
 import com.github.sibmaks.sp.service.RoomService;
 import com.github.sibmaks.sp.service.SessionService;
-import com.github.sibmaks.sp.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,8 +14,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-import java.util.stream.Collectors;
-
 import static com.github.sibmaks.sp.api.constant.CommonConstant.REDIRECT_TO_ROOT;
 
 /**
@@ -30,9 +25,9 @@ import static com.github.sibmaks.sp.api.constant.CommonConstant.REDIRECT_TO_ROOT
 @Controller
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class UIController {
-    private final UserService userService;
     private final RoomService roomService;
     private final SessionService sessionService;
+    private final RoomMetrics roomMetrics;
 
     /**
      * Index page, redirect on room page if a client is authorized.
@@ -43,7 +38,7 @@ public class UIController {
      */
     @GetMapping("/")
     public String index(HttpServletRequest request) {
-        var sessionId = getSessionId(request);
+        var sessionId = CurrentUserArgumentResolver.getSessionId(request, true);
         if (sessionService.isAuthorized(sessionId)) {
             return "redirect:/rooms";
         }
@@ -59,7 +54,7 @@ public class UIController {
      */
     @GetMapping("/reg")
     public String showRegistrationForm(HttpServletRequest request) {
-        var sessionId = getSessionId(request);
+        var sessionId = CurrentUserArgumentResolver.getSessionId(request, true);
         if (sessionService.isAuthorized(sessionId)) {
             return REDIRECT_TO_ROOT;
         }
@@ -70,14 +65,12 @@ public class UIController {
      * Account page, redirect to index page if session does not exist.
      * Otherwise, a client will see account change page.
      *
-     * @param request http servlet request
-     * @param model   spring model info
+     * @param user  current user
+     * @param model spring model info
      * @return account page
      */
     @GetMapping("/account")
-    public String showAccountForm(HttpServletRequest request, Model model) {
-        var sessionId = getSessionId(request);
-        var user = getUserOrUnauthorized(sessionId);
+    public String showAccountForm(@CurrentUser(cookie = true) User user, Model model) {
         model.addAttribute("firstName", user.getFirstName());
         model.addAttribute("lastName", user.getLastName());
         return "account";
@@ -87,17 +80,13 @@ public class UIController {
      * Rooms list page, redirect to index page if session does not exist.
      * Otherwise, a client will see a page with room list.
      *
-     * @param request http servlet request
-     * @param model   spring model info
+     * @param user  current user
+     * @param model spring model info
      * @return rooms page
      */
     @GetMapping("/rooms")
-    public String getRooms(HttpServletRequest request, Model model) {
-        var sessionId = getSessionId(request);
-        var user = getUserOrUnauthorized(sessionId);
-        var rooms = roomService.getRooms(user.getId()).stream()
-                .map(it -> new RoomInfoDto(it, roomService.getParticipantCount(it)))
-                .collect(Collectors.toList());
+    public String getRooms(@CurrentUser(cookie = true) User user, Model model) {
+        var rooms = roomService.getRoomInfos(user.getId());
         model.addAttribute("rooms", rooms);
         return "rooms";
     }
@@ -112,7 +101,7 @@ public class UIController {
      */
     @GetMapping("/room/create")
     public String createRoom(HttpServletRequest request, Model model) {
-        var sessionId = getSessionId(request);
+        var sessionId = CurrentUserArgumentResolver.getSessionId(request, true);
         if (sessionService.isAuthorized(sessionId)) {
             var roles = roomService.getRoles();
             model.addAttribute("roles", roles);
@@ -125,80 +114,48 @@ public class UIController {
      * Room info page, redirect to index page if session is not exists.
      * Otherwise, client will see page with room info.
      * If user not belong to room then join page will be returned.
-     * User can be automatically join to room if
+     * User can be automatically join to room if room has one role and no secret code.
+     * Page data is loaded by {@link RoomService#getRoomPage(User, long)}.
      *
-     * @param request     http servlet request
+     * @param user        current user
      * @param roomIdParam room identifier
      * @param model       spring model info
      * @return room info page or join page
      */
     @GetMapping("/room/{roomId}")
-    public String getRoom(HttpServletRequest request, @PathVariable("roomId") String roomIdParam, Model model) {
+    public String getRoom(@CurrentUser(cookie = true) User user, @PathVariable("roomId") String roomIdParam, Model model) {
         long roomId;
         try {
             roomId = Long.parseLong(roomIdParam);
         } catch (Exception e) {
             return REDIRECT_TO_ROOT;
         }
-        var sessionId = getSessionId(request);
-        var user = getUserOrUnauthorized(sessionId);
-        var room = roomService.getRoom(user, roomId);
-        if (room == null) {
-            var roles = roomService.getRoles(roomId);
-            if (roles == null || roles.isEmpty()) {
+        var roomPage = roomService.getRoomPage(user, roomId);
+        if (roomPage == null) {
+            return REDIRECT_TO_ROOT;
+        }
+        if (!roomPage.isParticipant()) {
+            var roles = roomPage.getRoles();
+            if (roles.isEmpty()) {
                 return REDIRECT_TO_ROOT;
             }
-            var hasSecret = roomService.hasSecret(roomId);
-            if (roles.size() == 1 && !hasSecret) {
+            if (roles.size() == 1 && !roomPage.hasSecret()) {
                 var role = roles.getFirst();
-                room = roomService.joinRoom(user, roomId, role.getId(), null);
+                roomService.joinRoom(user, roomId, role.getId(), null);
+                roomPage = roomService.getRoomPage(user, roomId);
+                if (roomPage == null || !roomPage.isParticipant()) {
+                    return REDIRECT_TO_ROOT;
+                }
             } else {
                 model.addAttribute("roomId", roomIdParam);
                 model.addAttribute("roles", roles);
-                model.addAttribute("hasSecret", hasSecret);
+                model.addAttribute("hasSecret", roomPage.hasSecret());
                 return "join";
             }
         }
-        var secret = roomService.getSecret(user, room);
-        var participants = roomService.getParticipants(room);
-        var response = new GetRoomResponse(user, room, participants);
+        var response = roomMetrics.buildResponse(user, roomPage.getState());
         model.addAttribute("roomInfo", response.getRoomInfo());
-        model.addAttribute("secretCode", secret);
+        model.addAttribute("secretCode", roomPage.getSecretCode());
         return "room";
     }
-
-    /**
-     * Get session identifier from http request.
-     * Looking for session's id in headers and cookies
-     *
-     * @param request http servlet request
-     * @return session identifier
-     */
-    private static String getSessionId(HttpServletRequest request) {
-        var header = request.getHeader(CommonConstant.HEADER_SESSION_ID);
-        if (header == null && request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if (CommonConstant.HEADER_SESSION_ID.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
-        }
-        return header;
-    }
-
-    /**
-     * Method get current session and extract user from session
-     * If session or user not found or invalid {@link UnauthorizedException} will be thrown
-     *
-     * @param sessionId session identifier
-     * @return domain user, not null
-     */
-    private User getUserOrUnauthorized(String sessionId) {
-        try {
-            var session = sessionService.getSession(sessionId);
-            return userService.getUser(session.getUserId());
-        } catch (NotFoundException e) {
-            throw new UnauthorizedException();
-        }
-    }
 }
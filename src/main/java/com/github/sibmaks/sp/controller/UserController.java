@@ -6,10 +6,8 @@ import com.github.sibmaks.sp.api.request.LoginRequest;
 import com.github.sibmaks.sp.api.request.RegistrationUserRequest;
 import com.github.sibmaks.sp.api.request.UpdateUserRequest;
 import com.github.sibmaks.sp.api.response.StandardResponse;
-import com.github.sibmaks.sp.domain.ClientSession;
 import com.github.sibmaks.sp.domain.User;
-import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
+import com.github.sibmaks.sp.handler.CurrentUser;
 import com.github.sibmaks.sp.service.SessionService;
 import com.github.sibmaks.sp.service.UserService;
 import jakarta.servlet.http.HttpServletResponse;
@@ -90,16 +88,15 @@ public class UserController {
      * In case if session not exists or unauthorized then Unauthorized result code will be returned.
      * After successful execution empty response will be returned.
      *
-     * @param sessionId session identifier for logout
+     * @param user current user
      * @param request API request DTO {@link UpdateUserRequest}
      * @see StandardResponse
      * @return empty response or response with error description
      */
     @PostMapping(value = "update")
     @Transactional
-    public StandardResponse update(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse update(@CurrentUser User user,
                                    @RequestBody @Validated UpdateUserRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         userService.update(user, request.getFirstName(), request.getLastName());
         return new StandardResponse();
     }
@@ -109,33 +106,16 @@ public class UserController {
      * In case if session does not exist or unauthorized, then Unauthorized result code will be returned.
      * After successful execution, empty response will be returned.
      *
-     * @param sessionId session identifier for logout
+     * @param user current user
      * @param request API request DTO {@link ChangePasswordRequest}
      * @see StandardResponse
      * @return empty response or response with error description
      */
     @PostMapping(value = "changePassword")
     @Transactional
-    public StandardResponse changePassword(@RequestHeader(CommonConstant.HEADER_SESSION_ID) String sessionId,
+    public StandardResponse changePassword(@CurrentUser User user,
                                    @RequestBody @Validated ChangePasswordRequest request) {
-        var user = getUserOrUnauthorized(sessionId);
         userService.changePassword(user, request.getPassword());
         return new StandardResponse();
     }
-
-    /**
-     * Method get current session and extract user from session
-     * If session or user not found or invalid {@link UnauthorizedException} will be thrown
-     *
-     * @param sessionId session identifier
-     * @return domain user, not null
-     */
-    private User getUserOrUnauthorized(String sessionId) {
-        try {
-            ClientSession session = sessionService.getSession(sessionId);
-            return userService.getUser(session.getUserId());
-        } catch (NotFoundException e) {
-            throw new UnauthorizedException();
-        }
-    }
 }
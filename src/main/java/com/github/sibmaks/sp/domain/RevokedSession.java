@@ -0,0 +1,38 @@
+package com.github.sibmaks.sp.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Revoked (logged out) session token.
+ * Kept until token is expired.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@Entity
+@Table(name = "revoked_session")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedSession implements Serializable {
+    @Id
+    @Column(name = "token_id", nullable = false)
+    private String tokenId;
+
+    @Column(name = "valid_to", nullable = false)
+    private Date validTo;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Date revokedAt;
+}
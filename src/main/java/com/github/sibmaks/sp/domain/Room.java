@@ -22,7 +22,7 @@ import java.util.Date;
 public class Room implements Serializable {
     @Id
     @Column(name = "id", nullable = false)
-    @SequenceGenerator(name = "room_id_seq", sequenceName = "room_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "room_id_seq", sequenceName = "room_id_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_id_seq")
     private long id;
     @Column(name = "name", nullable = false)
@@ -35,4 +35,10 @@ public class Room implements Serializable {
     private Date created;
     @Column(name = "expired", nullable = false)
     private Date expired;
+    /**
+     * Room version, increased by each room change.
+     * Managed by DB queries only, see {@link com.github.sibmaks.sp.repository.RoomRepository#incrementVersion(long)}
+     */
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
 }
@@ -1,26 +1,56 @@
 package com.github.sibmaks.sp.domain;
 
-import jakarta.persistence.EmbeddedId;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serializable;
 
 /**
+ * Room role.
+ * New room role is persisted without selecting it by composite id first,
+ * so room roles can be inserted by one JDBC batch.
+ *
  * @author sibmaks
  * Created at 12-10-2021
  */
 @Data
 @Entity
 @Table(name = "room_role")
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
-public class RoomRole implements Serializable {
+public class RoomRole implements Serializable, Persistable<RoomRoleId> {
     @EmbeddedId
     private RoomRoleId roomRoleId;
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    @Builder
+    public RoomRole(RoomRoleId roomRoleId) {
+        this.roomRoleId = roomRoleId;
+    }
+
+    @Override
+    public RoomRoleId getId() {
+        return roomRoleId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    /**
+     * Mark entity as stored in DB after loading or persisting
+     */
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -21,7 +21,7 @@ import java.io.Serializable;
 public class User implements Serializable {
     @Id
     @Column(name = "id", nullable = false)
-    @SequenceGenerator(name = "user_id_seq", sequenceName = "user_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "user_id_seq", sequenceName = "user_id_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id_seq")
     private long id;
     @Column(name = "login", nullable = false)
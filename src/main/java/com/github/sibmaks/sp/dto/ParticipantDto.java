@@ -0,0 +1,20 @@
+package com.github.sibmaks.sp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Room participant read model, loaded by one projection query with user and role data
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@AllArgsConstructor
+public class ParticipantDto {
+    private final long userId;
+    private final String name;
+    private final int roleId;
+    private final String roleName;
+    private final String score;
+}
@@ -1,6 +1,5 @@
 package com.github.sibmaks.sp.dto;
 
-import com.github.sibmaks.sp.domain.Room;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -17,16 +16,4 @@ public class RoomInfoDto {
     private final String name;
     private final boolean voting;
     private final long participants;
-
-    /**
-     * Constructor for creating dto by domain entity and participants count
-     * @param room domain room
-     * @param participants participants count
-     */
-    public RoomInfoDto(Room room, long participants) {
-        this.id = room.getId();
-        this.name = room.getName();
-        this.voting = room.isVoting();
-        this.participants = participants;
-    }
 }
@@ -0,0 +1,47 @@
+package com.github.sibmaks.sp.dto;
+
+import com.github.sibmaks.sp.domain.Role;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Everything needed to render room page for specific user: room page or join page.
+ * Built from in-memory room state and room roles cache, see {@code RoomService#getRoomPage}.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Getter
+@AllArgsConstructor
+public class RoomPageView {
+    /**
+     * Room state snapshot
+     */
+    private final RoomState state;
+    /**
+     * Is user room participant
+     */
+    private final boolean participant;
+    /**
+     * Roles user can join room with, empty for participant
+     */
+    private final List<Role> roles;
+    @Getter(AccessLevel.NONE)
+    private final boolean secret;
+    /**
+     * Room secret code, set for room author only
+     */
+    private final String secretCode;
+
+    /**
+     * Check is secret code required to join room
+     *
+     * @return true - secret code required, false otherwise
+     */
+    public boolean hasSecret() {
+        return secret;
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.sibmaks.sp.dto;
+
+import com.github.sibmaks.sp.domain.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Role allowed in room with room expiration date
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@AllArgsConstructor
+public class RoomRoleDto {
+    private final Role role;
+    private final Date expired;
+}
@@ -0,0 +1,180 @@
+package com.github.sibmaks.sp.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.entity.GroupInfo;
+import com.github.sibmaks.sp.api.entity.ParticipantInfo;
+import com.github.sibmaks.sp.domain.Room;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory room state snapshot: room with secret code and participants.
+ * Snapshot is shared between readers and must not be modified.
+ * Viewer independent part of room info (groups of participants) is built once per snapshot,
+ * see {@link #getGroupInfos()}, and serialized once if snapshot is created with object mapper,
+ * see {@link #getGroupInfosJson()}.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Getter
+public class RoomState {
+    private final Room room;
+    private final List<ParticipantDto> participants;
+    private final long loadedAt;
+    /**
+     * Room secret code or null if room has no secret, never changed after room creation
+     */
+    private final String secretCode;
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, ParticipantDto> participantsByUser;
+    @Getter(AccessLevel.NONE)
+    private final ObjectMapper objectMapper;
+    @Getter(AccessLevel.NONE)
+    private volatile List<GroupInfo> groupInfos;
+    @Getter(AccessLevel.NONE)
+    private volatile SerializableString groupInfosJson;
+
+    public RoomState(Room room, List<ParticipantDto> participants, long loadedAt) {
+        this(room, null, participants, loadedAt);
+    }
+
+    public RoomState(Room room, String secretCode, List<ParticipantDto> participants, long loadedAt) {
+        this(room, secretCode, participants, loadedAt, null);
+    }
+
+    public RoomState(Room room, String secretCode, List<ParticipantDto> participants, long loadedAt,
+                     ObjectMapper objectMapper) {
+        this.room = room;
+        this.objectMapper = objectMapper;
+        this.secretCode = secretCode;
+        this.participants = participants;
+        this.loadedAt = loadedAt;
+        this.participantsByUser = participants.stream()
+                .collect(Collectors.toUnmodifiableMap(ParticipantDto::getUserId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * Get room state entity tag, changed on each room version change.
+     *
+     * @return quoted entity tag
+     */
+    public String getETag() {
+        return "\"" + room.getId() + "-" + room.getVersion() + "\"";
+    }
+
+    /**
+     * Check is secret code required to join room
+     *
+     * @return true - room has secret code, false otherwise
+     */
+    public boolean hasSecret() {
+        return secretCode != null;
+    }
+
+    /**
+     * Check is user participant of room
+     *
+     * @param userId user identifier
+     * @return user is participant or not
+     */
+    public boolean hasParticipant(long userId) {
+        return participantsByUser.containsKey(userId);
+    }
+
+    /**
+     * Get room participant by user identifier
+     *
+     * @param userId user identifier
+     * @return participant or null if user is not participant
+     */
+    public ParticipantDto getParticipant(long userId) {
+        return participantsByUser.get(userId);
+    }
+
+    /**
+     * Check are participant groups already built
+     *
+     * @return true - groups are built, false otherwise
+     */
+    public boolean hasGroupInfos() {
+        return groupInfos != null;
+    }
+
+    /**
+     * Get participant groups of room.
+     * Groups are built on first call only, scores are hidden while room is in voting state.
+     * Groups are shared between all viewers and must not be modified.
+     *
+     * @return unmodifiable list of groups
+     */
+    public List<GroupInfo> getGroupInfos() {
+        var actual = groupInfos;
+        if (actual == null) {
+            actual = buildGroupInfos();
+            groupInfos = actual;
+        }
+        return actual;
+    }
+
+    /**
+     * Get participant groups of room serialized to JSON by application object mapper.
+     * Groups are serialized on first call only.
+     *
+     * @return serialized list of {@link GroupInfo} or null if snapshot is created without object mapper
+     */
+    public SerializableString getGroupInfosJson() {
+        if (objectMapper == null) {
+            return null;
+        }
+        var actual = groupInfosJson;
+        if (actual == null) {
+            actual = new SerializedString(writeGroupInfos());
+            groupInfosJson = actual;
+        }
+        return actual;
+    }
+
+    private List<GroupInfo> buildGroupInfos() {
+        Map<Integer, GroupInfo> groups = new LinkedHashMap<>();
+        for (var it : participants) {
+            var groupInfo = groups.computeIfAbsent(it.getRoleId(), roleId -> buildGroupInfo(it.getRoleName()));
+            groupInfo.getParticipantInfos().add(buildParticipantInfo(it, room.isVoting()));
+        }
+        for (var groupInfo : groups.values()) {
+            groupInfo.setParticipantInfos(Collections.unmodifiableList(groupInfo.getParticipantInfos()));
+        }
+        return List.copyOf(groups.values());
+    }
+
+    private String writeGroupInfos() {
+        try {
+            return objectMapper.writeValueAsString(getGroupInfos());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Room groups serialization failed", e);
+        }
+    }
+
+    private static GroupInfo buildGroupInfo(String name) {
+        var groupInfo = new GroupInfo();
+        groupInfo.setName(name);
+        groupInfo.setParticipantInfos(new ArrayList<>());
+        return groupInfo;
+    }
+
+    private static ParticipantInfo buildParticipantInfo(ParticipantDto participant, boolean voting) {
+        return ParticipantInfo.builder()
+                .id(participant.getUserId())
+                .name(participant.getName())
+                .voted(participant.getScore() != null)
+                .score(voting ? null : participant.getScore())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.sibmaks.sp.dto;
+
+import com.github.sibmaks.sp.domain.Room;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Room with room secret code, loaded by one query
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@AllArgsConstructor
+public class RoomWithSecretDto {
+    private final Room room;
+    /**
+     * Room secret code or null if room has no secret
+     */
+    private final String secretCode;
+}
@@ -0,0 +1,19 @@
+package com.github.sibmaks.sp.dto;
+
+import com.github.sibmaks.sp.domain.ClientSession;
+import com.github.sibmaks.sp.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Valid client session with session's user, loaded by one query
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Data
+@AllArgsConstructor
+public class SessionUserDto {
+    private final ClientSession session;
+    private final User user;
+}
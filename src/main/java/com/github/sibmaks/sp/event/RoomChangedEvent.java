@@ -0,0 +1,84 @@
+package com.github.sibmaks.sp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event, published when room state was changed:
+ * user voted, voting state changed, user joined or left the room.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RoomChangedEvent {
+    /**
+     * Changed room identifier
+     */
+    private final long roomId;
+    /**
+     * Type of room change
+     */
+    private final Type type;
+    /**
+     * Identifier of user, who changed the room
+     */
+    private final long userId;
+    /**
+     * Room was changed by other application instance, event is received through DB notification
+     */
+    private final boolean remote;
+
+    /**
+     * Create event about room change of unknown type
+     *
+     * @param roomId changed room identifier
+     */
+    public RoomChangedEvent(long roomId) {
+        this(roomId, Type.CHANGED, 0);
+    }
+
+    /**
+     * Create event about room change made by this application instance
+     *
+     * @param roomId changed room identifier
+     * @param type type of room change
+     * @param userId identifier of user, who changed the room
+     */
+    public RoomChangedEvent(long roomId, Type type, long userId) {
+        this(roomId, type, userId, false);
+    }
+
+    /**
+     * Room change type
+     */
+    public enum Type {
+        /**
+         * Room changed, details are unknown
+         */
+        CHANGED,
+        /**
+         * User joined the room
+         */
+        JOINED,
+        /**
+         * User left the room
+         */
+        LEFT,
+        /**
+         * User voted
+         */
+        VOTED,
+        /**
+         * New voting round started, scores were reset
+         */
+        VOTING_STARTED,
+        /**
+         * Voting round finished, scores are revealed
+         */
+        VOTING_FINISHED
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.sibmaks.sp.exception;
+
+import com.github.sibmaks.sp.api.constant.ApiResultCode;
+
+/**
+ * Service is overloaded exception, client should repeat request later.
+ * TryAgain result code used
+ *
+ * @see ApiResultCode
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public class TryAgainException extends ServiceException {
+    /**
+     * Default exception constructor
+     */
+    public TryAgainException() {
+        super(ApiResultCode.TRY_AGAIN);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.sibmaks.sp.handler;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks controller method parameter to be resolved as user of current client session.
+ * Session identifier is taken from header, cookie is used only if it is allowed by {@link #cookie()}.
+ * If session not exists, expired or user not found then {@link com.github.sibmaks.sp.exception.UnauthorizedException}
+ * will be thrown.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ * @see CurrentUserArgumentResolver
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+    /**
+     * Allow to take session identifier from cookie if header is not passed.
+     * Should be enabled only for page and event stream handlers, because browser can't set headers there.
+     * State-changing API endpoints require header, so session can't be used by cross-site requests.
+     *
+     * @return true - cookie is allowed, false - only header is used
+     */
+    boolean cookie() default false;
+}
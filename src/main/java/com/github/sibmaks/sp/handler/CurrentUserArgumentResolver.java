@@ -0,0 +1,72 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.api.constant.CommonConstant;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.UnauthorizedException;
+import com.github.sibmaks.sp.service.SessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolver of controller method parameters marked with {@link CurrentUser}.
+ * Session identifier is looking for in header first and in cookies after, if it is allowed by {@link CurrentUser#cookie()},
+ * session with user is loaded by one query.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    private final SessionService sessionService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class) &&
+                User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public User resolveArgument(MethodParameter parameter,
+                                ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest,
+                                WebDataBinderFactory binderFactory) {
+        var request = webRequest.getNativeRequest(HttpServletRequest.class);
+        var currentUser = parameter.getParameterAnnotation(CurrentUser.class);
+        var cookie = currentUser != null && currentUser.cookie();
+        var sessionId = request == null ? null : getSessionId(request, cookie);
+        try {
+            return sessionService.getSessionUser(sessionId);
+        } catch (NotFoundException e) {
+            throw new UnauthorizedException();
+        }
+    }
+
+    /**
+     * Get session identifier from http request.
+     * Looking for session's id in headers and in cookies, if it is allowed
+     *
+     * @param request http servlet request
+     * @param cookie allow to take session identifier from cookie
+     * @return session identifier
+     */
+    public static String getSessionId(HttpServletRequest request, boolean cookie) {
+        var header = request.getHeader(CommonConstant.HEADER_SESSION_ID);
+        if (cookie && header == null && request.getCookies() != null) {
+            for (var cookie : request.getCookies()) {
+                if (CommonConstant.HEADER_SESSION_ID.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return header;
+    }
+}
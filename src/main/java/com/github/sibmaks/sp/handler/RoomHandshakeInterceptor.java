@@ -0,0 +1,78 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.service.RoomService;
+import com.github.sibmaks.sp.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Room web socket handshake interceptor.
+ * Client session and room participation are checked once per connection,
+ * client session identifier and room identifier are stored in web socket session attributes,
+ * client session is checked again by {@link RoomWebSocketHandler} on each message.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoomHandshakeInterceptor implements HandshakeInterceptor {
+    /**
+     * Request parameter with room identifier
+     */
+    public static final String PARAMETER_ROOM_ID = "roomId";
+
+    private final SessionService sessionService;
+    private final RoomService roomService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request,
+                                   ServerHttpResponse response,
+                                   WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        var httpRequest = servletRequest.getServletRequest();
+        long roomId;
+        try {
+            roomId = Long.parseLong(httpRequest.getParameter(PARAMETER_ROOM_ID));
+        } catch (NumberFormatException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        var sessionId = CurrentUserArgumentResolver.getSessionId(httpRequest, true);
+        try {
+            var user = sessionService.getSessionUser(sessionId);
+            if (roomService.getRoomState(user, roomId) == null) {
+                response.setStatusCode(HttpStatus.NOT_FOUND);
+                return false;
+            }
+            attributes.put(RoomWebSocketHandler.ATTRIBUTE_SESSION_ID, sessionId);
+            attributes.put(RoomWebSocketHandler.ATTRIBUTE_ROOM_ID, roomId);
+            return true;
+        } catch (NotFoundException e) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request,
+                               ServerHttpResponse response,
+                               WebSocketHandler wsHandler,
+                               Exception exception) {
+        // nothing to do after handshake
+    }
+}
@@ -0,0 +1,311 @@
+package com.github.sibmaks.sp.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.constant.ApiResultCode;
+import com.github.sibmaks.sp.api.entity.RoomDelta;
+import com.github.sibmaks.sp.api.request.RoomSocketRequest;
+import com.github.sibmaks.sp.api.response.GetRoomResponse;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.exception.NotAllowedException;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.ServiceException;
+import com.github.sibmaks.sp.exception.ValidationErrorException;
+import com.github.sibmaks.sp.service.RoomService;
+import com.github.sibmaks.sp.service.RoomStateEngine;
+import com.github.sibmaks.sp.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Room web socket handler.
+ * Client sends votes and voting state changes, server pushes small room deltas instead of whole room info.
+ * Whole room info is sent on connection and after user join or leave only.
+ * Session is checked on handshake, see {@link RoomHandshakeInterceptor}, and then again on each client message
+ * and room push by cached session lookup, so socket is closed after logout or session expiration.
+ * Pushes are sent to room participants only.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoomWebSocketHandler extends TextWebSocketHandler {
+    /**
+     * Session attribute with client session identifier
+     */
+    public static final String ATTRIBUTE_SESSION_ID = "sessionId";
+    /**
+     * Session attribute with room identifier
+     */
+    public static final String ATTRIBUTE_ROOM_ID = "roomId";
+
+    private static final int SEND_TIME_LIMIT = 10_000;
+    private static final int SEND_BUFFER_SIZE_LIMIT = 512 * 1024;
+    private static final int MAX_SCORE_LENGTH = 3;
+
+    private final RoomService roomService;
+    private final RoomStateEngine roomStateEngine;
+    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Long, Map<String, WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        var roomId = getRoomId(session);
+        var concurrentSession = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, SEND_BUFFER_SIZE_LIMIT);
+        sessions.compute(roomId, (id, roomSessions) -> {
+            var actual = roomSessions == null ? new ConcurrentHashMap<String, WebSocketSession>() : roomSessions;
+            actual.put(session.getId(), concurrentSession);
+            return actual;
+        });
+        var roomState = roomStateEngine.get(roomId);
+        if (roomState == null) {
+            session.close(CloseStatus.NORMAL);
+            return;
+        }
+        sendRoom(concurrentSession, roomState);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.computeIfPresent(getRoomId(session), (id, roomSessions) -> {
+            roomSessions.remove(session.getId());
+            return roomSessions.isEmpty() ? null : roomSessions;
+        });
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        var user = getSessionUser(session);
+        if (user == null) {
+            close(session, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        var roomId = getRoomId(session);
+        try {
+            var request = objectMapper.readValue(message.getPayload(), RoomSocketRequest.class);
+            if (RoomSocketRequest.TYPE_VOTE.equals(request.getType())) {
+                var score = request.getScore();
+                if (score == null || score.isEmpty() || score.length() > MAX_SCORE_LENGTH) {
+                    throw new ValidationErrorException("score", "size must be between 1 and " + MAX_SCORE_LENGTH);
+                }
+                roomService.vote(user, roomId, score);
+            } else if (RoomSocketRequest.TYPE_SET_VOTING.equals(request.getType())) {
+                roomService.setVoting(user, roomId, request.isVoting());
+            } else {
+                throw new ValidationErrorException("type", "unknown message type");
+            }
+        } catch (JsonProcessingException e) {
+            log.warn(e.getMessage(), e);
+            sendError(session, ApiResultCode.VALIDATION_ERROR.code);
+        } catch (ServiceException e) {
+            log.warn(e.getMessage(), e);
+            sendError(session, e.getApiResultCode().code);
+        }
+    }
+
+    /**
+     * Push room delta to all room web socket clients, which are still authorized and participate in room.
+     * Executed after room change transaction commit, delta is built from actual room state,
+     * so it stays correct even if events are handled out of order.
+     *
+     * @param event room changed event
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        var roomSessions = sessions.get(event.getRoomId());
+        if (roomSessions == null || roomSessions.isEmpty()) {
+            return;
+        }
+        var roomState = roomStateEngine.get(event.getRoomId());
+        if (roomState == null) {
+            roomSessions.values().forEach(it -> close(it, CloseStatus.NORMAL));
+            return;
+        }
+        var room = roomState.getRoom();
+        switch (event.getType()) {
+            case VOTED -> {
+                var participant = roomState.getParticipant(event.getUserId());
+                send(roomSessions, roomState, RoomDelta.builder()
+                        .type(RoomDelta.TYPE_VOTED)
+                        .version(room.getVersion())
+                        .userId(event.getUserId())
+                        .voted(participant != null && participant.getScore() != null)
+                        .build());
+            }
+            case VOTING_STARTED, VOTING_FINISHED -> send(roomSessions, roomState, buildVotingDelta(roomState));
+            default -> roomSessions.values().forEach(it -> sendRoom(it, roomState));
+        }
+    }
+
+    /**
+     * Build voting state delta by actual room voting state.
+     * Scores are passed only if round is finished.
+     *
+     * @param roomState room state
+     * @return room delta
+     */
+    private static RoomDelta buildVotingDelta(RoomState roomState) {
+        var room = roomState.getRoom();
+        if (room.isVoting()) {
+            return RoomDelta.builder()
+                    .type(RoomDelta.TYPE_STARTED)
+                    .version(room.getVersion())
+                    .build();
+        }
+        var scores = roomState.getParticipants().stream()
+                .filter(it -> it.getScore() != null)
+                .collect(Collectors.toMap(ParticipantDto::getUserId, ParticipantDto::getScore, (a, b) -> a));
+        return RoomDelta.builder()
+                .type(RoomDelta.TYPE_REVEALED)
+                .version(room.getVersion())
+                .scores(scores)
+                .build();
+    }
+
+    /**
+     * Send same delta to all room sessions, delta is serialized once.
+     * Sessions of users, which are not authorized or not participants of room anymore, will be closed.
+     *
+     * @param roomSessions room sessions
+     * @param roomState room state
+     * @param delta room delta
+     */
+    private void send(Map<String, WebSocketSession> roomSessions, RoomState roomState, RoomDelta delta) {
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException e) {
+            log.error("Room delta serialization failed", e);
+            return;
+        }
+        for (var session : roomSessions.values()) {
+            if (isAllowed(session, roomState)) {
+                send(session, message);
+            }
+        }
+    }
+
+    /**
+     * Check is session still authorized and session's user is participant of room.
+     * Not allowed session will be closed.
+     *
+     * @param session web socket session
+     * @param roomState room state
+     * @return true - delta can be sent, false otherwise
+     */
+    private boolean isAllowed(WebSocketSession session, RoomState roomState) {
+        var user = getSessionUser(session);
+        if (user == null) {
+            close(session, CloseStatus.POLICY_VIOLATION);
+            return false;
+        }
+        if (!roomState.hasParticipant(user.getId())) {
+            close(session, CloseStatus.NORMAL);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Send whole room info for session's user.
+     * If session is not authorized or user is not participant of room anymore then session will be closed.
+     *
+     * @param session web socket session
+     * @param roomState room state
+     */
+    private void sendRoom(WebSocketSession session, RoomState roomState) {
+        var user = getSessionUser(session);
+        if (user == null) {
+            close(session, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        try {
+            var response = new GetRoomResponse(user, roomState);
+            var delta = RoomDelta.builder()
+                    .type(RoomDelta.TYPE_ROOM)
+                    .version(roomState.getRoom().getVersion())
+                    .roomInfo(response.getRoomInfo())
+                    .build();
+            send(session, new TextMessage(objectMapper.writeValueAsString(delta)));
+        } catch (NotAllowedException e) {
+            close(session, CloseStatus.NORMAL);
+        } catch (JsonProcessingException e) {
+            log.error("Room delta serialization failed", e);
+        }
+    }
+
+    /**
+     * Send error to client, message is sent through the same concurrent session as room deltas
+     *
+     * @param session web socket session
+     * @param resultCode api result code
+     */
+    private void sendError(WebSocketSession session, String resultCode) throws IOException {
+        var delta = RoomDelta.builder()
+                .type(RoomDelta.TYPE_ERROR)
+                .resultCode(resultCode)
+                .build();
+        var roomSessions = sessions.getOrDefault(getRoomId(session), Map.of());
+        var concurrentSession = roomSessions.getOrDefault(session.getId(), session);
+        send(concurrentSession, new TextMessage(objectMapper.writeValueAsString(delta)));
+    }
+
+    private static void send(WebSocketSession session, TextMessage message) {
+        try {
+            session.sendMessage(message);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Room delta sending failed", e);
+            close(session, CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    private static void close(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Room web socket closing failed", e);
+        }
+    }
+
+    /**
+     * Get actual user of web socket client session.
+     * Lookup is cached by session service, so it doesn't touch DB while session is cached.
+     *
+     * @param session web socket session
+     * @return session's user or null if client session is logged out or expired
+     */
+    private User getSessionUser(WebSocketSession session) {
+        var sessionId = (String) session.getAttributes().get(ATTRIBUTE_SESSION_ID);
+        try {
+            return sessionService.getSessionUser(sessionId);
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    private static long getRoomId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(ATTRIBUTE_ROOM_ID);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.sibmaks.sp.handler;
+
+/**
+ * SQL statements statistics of current thread.
+ * Statistics are collected between {@link #start()} and {@link #stop()} only,
+ * statements are reported by {@link SqlStatsSessionListener}.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public final class SqlStats {
+    private static final ThreadLocal<Collector> CURRENT = new ThreadLocal<>();
+
+    private SqlStats() {
+    }
+
+    /**
+     * Start statistics collection in current thread, previously collected statistics are dropped
+     */
+    public static void start() {
+        CURRENT.set(new Collector());
+    }
+
+    /**
+     * Stop statistics collection in current thread
+     *
+     * @return collected statistics or null if collection was not started
+     */
+    public static Snapshot stop() {
+        var collector = CURRENT.get();
+        if (collector == null) {
+            return null;
+        }
+        CURRENT.remove();
+        return new Snapshot(collector.statements, collector.nanos);
+    }
+
+    /**
+     * Add statement execution
+     *
+     * @param nanos statement execution time
+     */
+    static void addStatement(long nanos) {
+        var collector = CURRENT.get();
+        if (collector != null) {
+            collector.statements++;
+            collector.nanos += nanos;
+        }
+    }
+
+    /**
+     * Add time of statement preparing
+     *
+     * @param nanos statement preparing time
+     */
+    static void addTime(long nanos) {
+        var collector = CURRENT.get();
+        if (collector != null) {
+            collector.nanos += nanos;
+        }
+    }
+
+    /**
+     * Collected statistics
+     *
+     * @param statements amount of executed statements, JDBC batch is counted as one statement
+     * @param nanos total time of statements preparing and execution
+     */
+    public record Snapshot(int statements, long nanos) {
+    }
+
+    private static final class Collector {
+        private int statements;
+        private long nanos;
+    }
+}
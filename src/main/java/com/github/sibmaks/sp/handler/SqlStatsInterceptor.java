@@ -0,0 +1,79 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.conf.SqlStatsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor collecting amount and time of SQL statements per HTTP request.
+ * Statistics are recorded as metrics tagged by controller method, e.g. {@code RoomController.getRoom},
+ * request is logged if statistics exceed thresholds.
+ * For async requests only initial dispatch is measured, statements executed on completion by other threads are not.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SqlStatsInterceptor implements AsyncHandlerInterceptor {
+    private static final String HANDLER_TAG = "handler";
+
+    private final SqlStatsProperties sqlStatsProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (sqlStatsProperties.isEnabled() &&
+                handler instanceof HandlerMethod &&
+                request.getDispatcherType() != DispatcherType.ASYNC) {
+            SqlStats.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        finish(handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(handler);
+    }
+
+    private void finish(Object handler) {
+        var snapshot = SqlStats.stop();
+        if (snapshot == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        var handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        DistributionSummary.builder("app.sql.statements")
+                .description("Amount of SQL statements per HTTP request")
+                .tag(HANDLER_TAG, handlerName)
+                .register(meterRegistry)
+                .record(snapshot.statements());
+        Timer.builder("app.sql.time")
+                .description("Total time of SQL statements per HTTP request")
+                .tag(HANDLER_TAG, handlerName)
+                .register(meterRegistry)
+                .record(snapshot.nanos(), TimeUnit.NANOSECONDS);
+        if (snapshot.statements() > sqlStatsProperties.getStatementThreshold() ||
+                snapshot.nanos() > sqlStatsProperties.getTimeThreshold().toNanos()) {
+            log.warn("Request {} executed {} SQL statements for {}ms", handlerName, snapshot.statements(),
+                    TimeUnit.NANOSECONDS.toMillis(snapshot.nanos()));
+        }
+    }
+}
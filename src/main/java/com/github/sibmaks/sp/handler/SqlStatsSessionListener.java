@@ -0,0 +1,46 @@
+package com.github.sibmaks.sp.handler;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener, reports JDBC statements to {@link SqlStats} of current thread.
+ * Instance is created by Hibernate for each session, see {@code hibernate.session.events.auto} property.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public class SqlStatsSessionListener implements SessionEventListener {
+    private long prepareStartedAt;
+    private long executeStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        SqlStats.addTime(System.nanoTime() - prepareStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStats.addStatement(System.nanoTime() - executeStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStats.addStatement(System.nanoTime() - batchStartedAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.sibmaks.sp.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * Flight recorder event of room snapshot building: loading of room and participants from DB.
+ * Snapshot is built after each room change, so event count shows hot rooms and participant count shows big ones.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Name(RoomSnapshotBuildEvent.NAME)
+@Label("Room Snapshot Build")
+@Category({"Scrum Poker", "Room"})
+@Description("Room snapshot loading from DB")
+@StackTrace(false)
+public class RoomSnapshotBuildEvent extends Event {
+    /**
+     * Event name
+     */
+    public static final String NAME = "com.github.sibmaks.sp.RoomSnapshotBuild";
+
+    @Label("Room Id")
+    private long roomId;
+    @Label("Participants")
+    private int participants;
+    @Label("Found")
+    @Description("Room exists and not removed")
+    private boolean found;
+}
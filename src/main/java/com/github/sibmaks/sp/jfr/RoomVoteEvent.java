@@ -0,0 +1,32 @@
+package com.github.sibmaks.sp.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * Flight recorder event of user vote in room.
+ * Vote is rare comparing to room reads, so every vote is recorded, it shows hot rooms.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Name(RoomVoteEvent.NAME)
+@Label("Room Vote")
+@Category({"Scrum Poker", "Room"})
+@Description("User vote in room, including room version increment")
+@StackTrace(false)
+public class RoomVoteEvent extends Event {
+    /**
+     * Event name
+     */
+    public static final String NAME = "com.github.sibmaks.sp.RoomVote";
+
+    @Label("Room Id")
+    private long roomId;
+    @Label("User Id")
+    private long userId;
+    @Label("Accepted")
+    @Description("Vote is accepted: user is participant and room is in voting state")
+    private boolean accepted;
+}
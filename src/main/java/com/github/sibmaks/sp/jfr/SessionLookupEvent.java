@@ -0,0 +1,44 @@
+package com.github.sibmaks.sp.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * Flight recorder event of session user lookup, executed on each authorized request.
+ * Lookups faster than 1 ms (cache hits) are not recorded by default, session identifier is never recorded.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Setter
+@Name(SessionLookupEvent.NAME)
+@Label("Session Lookup")
+@Category({"Scrum Poker", "Session"})
+@Description("Session user lookup")
+@StackTrace(false)
+@Threshold("1 ms")
+public class SessionLookupEvent extends Event {
+    /**
+     * Event name
+     */
+    public static final String NAME = "com.github.sibmaks.sp.SessionLookup";
+    /**
+     * Session is taken from in-memory cache
+     */
+    public static final String SOURCE_CACHE = "cache";
+    /**
+     * Session token is verified, user is loaded from DB
+     */
+    public static final String SOURCE_TOKEN = "token";
+    /**
+     * Session with user is loaded from DB
+     */
+    public static final String SOURCE_DB = "db";
+
+    @Label("Source")
+    private String source;
+    @Label("User Id")
+    private long userId;
+    @Label("Found")
+    private boolean found;
+}
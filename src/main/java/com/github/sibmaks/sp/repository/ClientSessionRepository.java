@@ -1,10 +1,14 @@
 package com.github.sibmaks.sp.repository;
 
 import com.github.sibmaks.sp.domain.ClientSession;
+import com.github.sibmaks.sp.dto.SessionUserDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Client session repository interface
@@ -14,12 +18,39 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public interface ClientSessionRepository extends JpaRepository<ClientSession, String> {
     /**
-     * Method for removing all invalid (expired) sessions
+     * Method for getting identifiers of invalid (expired) sessions.
+     * Index on valid to date is used.
+     *
+     * @param limit max amount of identifiers
+     * @return list of expired session identifiers
+     */
+    @Query("select s.sessionId from ClientSession s where s.validTo <= CURRENT_TIMESTAMP")
+    List<String> findExpiredIds(Limit limit);
+
+    /**
+     * Method for getting valid (not expired) session with session's user by one query
+     *
+     * @param sessionId session identifier
+     * @return session with user or empty optional if session not exists, expired or user not exists
+     */
+    @Query("select new com.github.sibmaks.sp.dto.SessionUserDto(s, u) from ClientSession s, User u " +
+            "where u.id = s.userId and s.sessionId = ?1 and s.validTo > CURRENT_TIMESTAMP")
+    Optional<SessionUserDto> findValidWithUser(String sessionId);
+
+    /**
+     * Method for checking is session exists and valid on passed date
+     *
+     * @param sessionId session identifier
+     * @param date date to check
+     * @return session exists and valid or not
+     */
+    boolean existsBySessionIdAndValidToAfter(String sessionId, Date date);
+
+    /**
+     * Get count of valid (not expired) sessions
      *
-     * @return number of deleted sessions
+     * @return count of valid sessions
      */
-    @Transactional
-    @Modifying
-    @Query("delete from ClientSession where validTo <= CURRENT_TIMESTAMP")
-    int deleteExpired();
+    @Query("select count(s) from ClientSession s where s.validTo > CURRENT_TIMESTAMP")
+    long countValid();
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import com.github.sibmaks.sp.domain.ParticipantId;
 import com.github.sibmaks.sp.domain.Room;
 import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -38,6 +39,20 @@ public interface ParticipantRepository extends JpaRepository<Participant, Partic
      */
     List<Participant> findAllByParticipantIdRoom(Room room);
 
+    /**
+     * Method for getting all participants in room with user and role data by one query.
+     * Participants are ordered by role and user identifiers.
+     *
+     * @param roomId room identifier
+     * @return list of participant projections
+     */
+    @Query("select new com.github.sibmaks.sp.dto.ParticipantDto(u.id, concat(u.lastName, ' ', u.firstName), " +
+            "r.id, r.name, p.score) " +
+            "from Participant p join p.participantId.user u join p.role r " +
+            "where p.participantId.room.id = ?1 " +
+            "order by r.id, u.id")
+    List<ParticipantDto> findAllDtoByRoomId(long roomId);
+
     /**
      * Get participant by participant id.
      * If participant not exists then null will be returned.
@@ -58,9 +73,26 @@ public interface ParticipantRepository extends JpaRepository<Participant, Partic
     void resetScore(Room room);
 
     /**
-     * Get count of participant in room
-     * @param room room domain
-     * @return count of participant in rooms
+     * Set participant score in specific room by one statement.
+     * Score is set only if room is in voting state.
+     *
+     * @param userId user identifier
+     * @param roomId room identifier
+     * @param score participant score
+     * @return count of updated participants: 1 if voted, 0 if user is not participant or room is not in voting state
+     */
+    @Modifying
+    @Query("update Participant p set p.score = ?3 " +
+            "where p.participantId.user.id = ?1 and p.participantId.room.id = ?2 " +
+            "and exists (select r.id from Room r where r.id = ?2 and r.voting = true)")
+    int vote(long userId, long roomId, String score);
+
+    /**
+     * Get count of participants in each not expired room, rooms without participants are skipped
+     *
+     * @return count of participants per room
      */
-    long countByParticipantIdRoom(Room room);
+    @Query("select count(p) from Participant p where p.participantId.room.expired >= CURRENT_TIMESTAMP " +
+            "group by p.participantId.room.id")
+    List<Long> countActivePerRoom();
 }
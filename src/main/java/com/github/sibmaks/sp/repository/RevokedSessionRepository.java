@@ -0,0 +1,35 @@
+package com.github.sibmaks.sp.repository;
+
+import com.github.sibmaks.sp.domain.RevokedSession;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked session tokens repository interface
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public interface RevokedSessionRepository extends JpaRepository<RevokedSession, String> {
+    /**
+     * Method for getting not expired tokens revoked after passed date
+     *
+     * @param revokedAt revocation date
+     * @param validTo date to check
+     * @return list of revoked tokens
+     */
+    List<RevokedSession> findAllByRevokedAtAfterAndValidToAfter(Date revokedAt, Date validTo);
+
+    /**
+     * Method for getting identifiers of expired revoked tokens
+     *
+     * @param limit max amount of identifiers
+     * @return list of expired token identifiers
+     */
+    @Query("select r.tokenId from RevokedSession r where r.validTo <= CURRENT_TIMESTAMP")
+    List<String> findExpiredIds(Limit limit);
+}
@@ -3,6 +3,7 @@ package com.github.sibmaks.sp.repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import com.github.sibmaks.sp.domain.Role;
+import com.github.sibmaks.sp.dto.RoomRoleDto;
 
 import java.util.List;
 
@@ -14,21 +15,14 @@ import java.util.List;
  */
 public interface RoleRepository extends Repository<Role, Integer> {
     /**
-     * Method for getting list of roles by roles identifiers
-     *
-     * @param roles roles identifiers
-     * @return list of roles
-     */
-    List<Role> findAllByIdIn(List<Integer> roles);
-
-    /**
-     * Method for getting list of roles allowed for specific room
+     * Method for getting list of roles allowed for specific not expired room with room expiration date
      *
      * @param roomId room identifier
-     * @return list of roles
+     * @return list of roles with room expiration date
      */
-    @Query("select distinct rr.roomRoleId.role from RoomRole rr where rr.roomRoleId.room.id = ?1")
-    List<Role> findAllForRoom(long roomId);
+    @Query("select new com.github.sibmaks.sp.dto.RoomRoleDto(rr.roomRoleId.role, rr.roomRoleId.room.expired) from RoomRole rr " +
+            "where rr.roomRoleId.room.id = ?1 and rr.roomRoleId.room.expired >= CURRENT_TIMESTAMP order by rr.roomRoleId.role.id")
+    List<RoomRoleDto> findAllDtoForRoom(long roomId);
 
     /**
      * Method for getting all available roles
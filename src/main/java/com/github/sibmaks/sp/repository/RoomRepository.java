@@ -1,12 +1,16 @@
 package com.github.sibmaks.sp.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.dto.RoomInfoDto;
+import com.github.sibmaks.sp.dto.RoomWithSecretDto;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Room repository interface
@@ -16,13 +20,17 @@ import java.util.List;
  */
 public interface RoomRepository extends JpaRepository<Room, Long> {
     /**
-     * Method for getting user's rooms.
+     * Method for getting user's rooms with participants count by one query.
      *
      * @param userId user identifier
-     * @return list of user rooms
+     * @return list of user rooms info
      */
-    @Query("select p.participantId.room from Participant p where p.participantId.user.id = ?1 and p.participantId.room.expired >= CURRENT_TIMESTAMP order by p.participantId.room.id")
-    List<Room> findByUserId(long userId);
+    @Query("select new com.github.sibmaks.sp.dto.RoomInfoDto(r.id, r.name, r.voting, count(*)) " +
+            "from Participant p join p.participantId.room r, Participant o " +
+            "where p.participantId.user.id = ?1 and r.expired >= CURRENT_TIMESTAMP and o.participantId.room.id = r.id " +
+            "group by r.id, r.name, r.voting " +
+            "order by r.id")
+    List<RoomInfoDto> findInfoByUserId(long userId);
 
     /**
      * Method for getting room by user and rooms identifier.
@@ -36,10 +44,43 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     Room findByParticipantAndId(long userId, long roomId);
 
     /**
-     * Method for removing all expired rooms
+     * Method for getting room with room's author and secret code by one query
+     *
+     * @param roomId room identifier
+     * @return room with secret code or empty optional if room not exists
+     */
+    @Query("select new com.github.sibmaks.sp.dto.RoomWithSecretDto(r, s.secretCode) from Room r join fetch r.author " +
+            "left join RoomSecret s on s.roomId = r.id where r.id = ?1")
+    Optional<RoomWithSecretDto> findWithSecretById(long roomId);
+
+    /**
+     * Increase room version.
+     * Should be called on each room change: vote, voting state change, join or leave.
+     *
+     * @param roomId room identifier
+     * @return count of updated rooms
      */
     @Transactional
     @Modifying
-    @Query("delete from Room where expired < CURRENT_TIMESTAMP")
-    int deleteExpired();
+    @Query("update Room r set r.version = r.version + 1 where r.id = ?1")
+    int incrementVersion(long roomId);
+
+    /**
+     * Method for getting identifiers of expired rooms.
+     * Index on expired date is used.
+     *
+     * @param limit max amount of identifiers
+     * @return list of expired room identifiers
+     */
+    @Query("select r.id from Room r where r.expired < CURRENT_TIMESTAMP")
+    List<Long> findExpiredIds(Limit limit);
+
+    /**
+     * Get count of not expired rooms.
+     * Index on expired date is used.
+     *
+     * @return count of rooms
+     */
+    @Query("select count(r) from Room r where r.expired >= CURRENT_TIMESTAMP")
+    long countActive();
 }
@@ -0,0 +1,47 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.ParticipantRepository;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import com.github.sibmaks.sp.service.RoomMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Activity gauges updater.
+ * Gauges are refreshed by count queries at fixed rate instead of each metrics scrape,
+ * values are the same on each application instance.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ActivityGaugeUpdater {
+    private final RoomRepository roomRepository;
+    private final ParticipantRepository participantRepository;
+    private final ClientSessionRepository clientSessionRepository;
+    private final RoomMetrics roomMetrics;
+
+    /**
+     * Method executed at fixed rate and update active rooms, participants and sessions gauges,
+     * participants of each active room are recorded to participants per room distribution.
+     * Sessions in token mode are not stored in DB, so they are not counted.
+     * @see RoomMetrics#setActivity(long, List, long)
+     */
+    @Scheduled(fixedDelay = 1000L * 60, initialDelay = 10000)
+    public void update() {
+        var rooms = roomRepository.countActive();
+        var roomParticipants = participantRepository.countActivePerRoom();
+        var sessions = clientSessionRepository.countValid();
+        roomMetrics.setActivity(rooms, roomParticipants, sessions);
+        log.debug("Active rooms: {}, rooms with participants: {}, sessions: {}",
+                rooms, roomParticipants.size(), sessions);
+    }
+}
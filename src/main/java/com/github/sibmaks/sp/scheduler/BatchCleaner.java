@@ -0,0 +1,78 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.conf.CleanerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Removes expired items by small batches, each batch in own transaction,
+ * so cleanup never holds long transaction with locks on hot tables.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BatchCleaner {
+    private static final String METRIC_NAME = "app.cleaner.batch";
+    private static final String CLEANER_TAG = "cleaner";
+
+    private final CleanerProperties cleanerProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Remove expired items batch by batch until no expired items left
+     *
+     * @param name cleaner name, used as metrics tag
+     * @param findExpiredIds function for getting batch of expired identifiers
+     * @param deleteByIds function for removing items by identifiers in one transaction
+     * @param <T> identifier type
+     * @return amount of removed items
+     */
+    public <T> int cleanUp(String name, Function<Limit, List<T>> findExpiredIds, Consumer<List<T>> deleteByIds) {
+        var batchSize = Math.max(1, cleanerProperties.getBatchSize());
+        var timer = Timer.builder(METRIC_NAME)
+                .description("Time of one cleanup batch")
+                .tag(CLEANER_TAG, name)
+                .register(meterRegistry);
+        var counter = Counter.builder(METRIC_NAME + ".items")
+                .description("Amount of removed expired items")
+                .tag(CLEANER_TAG, name)
+                .register(meterRegistry);
+        int items = 0;
+        while (true) {
+            var deleted = timer.record(() -> {
+                var ids = findExpiredIds.apply(Limit.of(batchSize));
+                deleteByIds.accept(ids);
+                return ids.size();
+            });
+            counter.increment(deleted);
+            items += deleted;
+            if (deleted < batchSize || !pause()) {
+                return items;
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(cleanerProperties.getBatchPause());
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Cleanup interrupted");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
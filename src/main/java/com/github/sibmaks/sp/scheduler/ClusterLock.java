@@ -0,0 +1,142 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.conf.CleanerProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Cluster wide leadership of scheduled jobs based on Postgres session advisory lock.
+ * First instance, which takes the lock, becomes leader and keeps the lock on dedicated connection across job runs,
+ * so scheduled jobs are executed by leader only, other instances skip them.
+ * If leader dies then its connection is closed and lock is released by Postgres,
+ * next scheduled execution on other instance takes the lock and leadership.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ClusterLock {
+    /**
+     * First key of advisory lock, separates application locks from others in the same DB
+     */
+    private static final int LOCK_NAMESPACE = 0x53500001;
+    /**
+     * Second key of advisory lock, scheduled jobs leadership
+     */
+    private static final int LEADER_LOCK = 1;
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    private final DataSource dataSource;
+    private final CleanerProperties cleanerProperties;
+    /**
+     * Connection holding leadership lock or null if this instance is not leader
+     */
+    private Connection leaderConnection;
+
+    /**
+     * Execute job if this instance is leader or leadership is free, otherwise skip execution.
+     * If cluster lock is disabled then job is always executed.
+     *
+     * @param name job name
+     * @param job job to execute
+     * @return true - job executed, false - job skipped, leadership is held by other instance
+     */
+    public boolean runLocked(String name, Runnable job) {
+        if (!cleanerProperties.isClusterLock()) {
+            job.run();
+            return true;
+        }
+        if (!isLeader()) {
+            log.debug("Job {} skipped, leadership is held by other instance", name);
+            return false;
+        }
+        job.run();
+        return true;
+    }
+
+    /**
+     * Check is this instance leader, take leadership if it is free.
+     * Lost leadership connection is dropped, so leadership is taken again only if it is still free.
+     *
+     * @return true - this instance is leader, false otherwise
+     */
+    synchronized boolean isLeader() {
+        try {
+            if (leaderConnection != null) {
+                if (leaderConnection.isValid(VALIDATION_TIMEOUT)) {
+                    return true;
+                }
+                log.warn("Leadership connection is lost");
+                closeLeaderConnection();
+            }
+            var connection = dataSource.getConnection();
+            var locked = false;
+            try {
+                locked = tryLock(connection);
+            } finally {
+                if (!locked) {
+                    connection.close();
+                }
+            }
+            if (!locked) {
+                return false;
+            }
+            leaderConnection = connection;
+            log.info("Leadership of scheduled jobs is taken");
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Can't take leadership of scheduled jobs", e);
+        }
+    }
+
+    /**
+     * Release leadership, so other instance takes it on next scheduled execution.
+     * Executed on application shutdown.
+     */
+    @PreDestroy
+    public synchronized void release() {
+        if (leaderConnection == null) {
+            return;
+        }
+        try {
+            if (!execute(leaderConnection, "select pg_advisory_unlock(?, ?)")) {
+                log.warn("Leadership lock was not held on release");
+            }
+        } catch (SQLException e) {
+            log.warn("Leadership releasing failed", e);
+        }
+        closeLeaderConnection();
+    }
+
+    private void closeLeaderConnection() {
+        try {
+            leaderConnection.close();
+        } catch (SQLException e) {
+            log.debug("Leadership connection closing failed", e);
+        }
+        leaderConnection = null;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        return execute(connection, "select pg_try_advisory_lock(?, ?)");
+    }
+
+    private static boolean execute(Connection connection, String sql) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, LEADER_LOCK);
+            try (var resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.sibmaks.sp.scheduler;
 
+import com.github.sibmaks.sp.cache.RoleCache;
 import com.github.sibmaks.sp.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,16 +19,25 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class RoomCleaner {
     private final RoomRepository roomRepository;
+    private final BatchCleaner batchCleaner;
+    private final ClusterLock clusterLock;
+    private final RoleCache roleCache;
 
     /**
-     * Method executed at fixed rate and remove old rooms from DB
+     * Method executed at fixed rate and remove old rooms from DB by batches.
+     * Cleanup is executed by leader instance only, cached roles of expired rooms are evicted on each instance.
      * @see RoomRepository
+     * @see BatchCleaner
+     * @see ClusterLock
      */
     @Scheduled(fixedDelay = 1000L * 60 * 60 * 2, initialDelay = 10000)
     public void cleanUp() {
-        long start = System.currentTimeMillis();
-        log.debug("Start rooms cleanup");
-        int items = roomRepository.deleteExpired();
-        log.debug("Rooms cleanup finished: {} items for {}ms", items, (System.currentTimeMillis() - start));
+        clusterLock.runLocked("room-cleaner", () -> {
+            long start = System.currentTimeMillis();
+            log.debug("Start rooms cleanup");
+            int items = batchCleaner.cleanUp("room", roomRepository::findExpiredIds, roomRepository::deleteAllByIdInBatch);
+            log.debug("Rooms cleanup finished: {} items for {}ms", items, (System.currentTimeMillis() - start));
+        });
+        roleCache.evictExpired();
     }
 }
@@ -1,6 +1,7 @@
 package com.github.sibmaks.sp.scheduler;
 
 import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.RevokedSessionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,16 +19,28 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class SessionCleaner {
     private final ClientSessionRepository clientSessionRepository;
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final BatchCleaner batchCleaner;
+    private final ClusterLock clusterLock;
 
     /**
-     * Method executed at fixed rate and remove old sessions from DB
+     * Method executed at fixed rate and remove old sessions and expired session token revocations from DB by batches.
+     * Cleanup is executed by leader instance only.
      * @see ClientSessionRepository
+     * @see RevokedSessionRepository
+     * @see BatchCleaner
+     * @see ClusterLock
      */
     @Scheduled(fixedDelay = 1000L * 60 * 60 * 2, initialDelay = 10000)
     public void cleanUp() {
-        long start = System.currentTimeMillis();
-        log.debug("Start session cleanup");
-        int items = clientSessionRepository.deleteExpired();
-        log.debug("Session cleanup finished: {} items for {}ms", items, (System.currentTimeMillis() - start));
+        clusterLock.runLocked("session-cleaner", () -> {
+            long start = System.currentTimeMillis();
+            log.debug("Start session cleanup");
+            int items = batchCleaner.cleanUp("session",
+                    clientSessionRepository::findExpiredIds, clientSessionRepository::deleteAllByIdInBatch);
+            items += batchCleaner.cleanUp("revoked-session",
+                    revokedSessionRepository::findExpiredIds, revokedSessionRepository::deleteAllByIdInBatch);
+            log.debug("Session cleanup finished: {} items for {}ms", items, (System.currentTimeMillis() - start));
+        });
     }
 }
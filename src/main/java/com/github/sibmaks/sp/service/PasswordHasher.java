@@ -0,0 +1,124 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.PasswordHashProperties;
+import com.github.sibmaks.sp.exception.TryAgainException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password hashing service.
+ * BCrypt is CPU heavy, so hashing is executed in bounded thread pool with bounded queue,
+ * request threads only wait for result. If queue is full {@link TryAgainException} is thrown.
+ * So at most threads + queue size request threads are blocked by hashing
+ * (twice amount of available processors by default), other request threads stay free for room requests.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Service
+public class PasswordHasher {
+    private static final String METRIC_NAME = "app.password.hash";
+    private static final String OPERATION_TAG = "operation";
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer checkTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHasher(PasswordHashProperties properties, MeterRegistry meterRegistry) {
+        var threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        var queueSize = properties.getQueueSize() > 0 ? properties.getQueueSize() : threads;
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                it -> {
+                    var thread = new Thread(it, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.hashTimer = Timer.builder(METRIC_NAME)
+                .description("Password hashing time, excluding queue waiting")
+                .tag(OPERATION_TAG, "hash")
+                .register(meterRegistry);
+        this.checkTimer = Timer.builder(METRIC_NAME)
+                .description("Password hashing time, excluding queue waiting")
+                .tag(OPERATION_TAG, "check")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Amount of password hashing tasks rejected due to full queue")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".queue", executor, it -> it.getQueue().size())
+                .description("Amount of password hashing tasks waiting for free thread")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Amount of password hashing tasks in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hash password with new salt
+     *
+     * @param password raw password
+     * @return password hash
+     */
+    public String hash(String password) {
+        return execute(hashTimer, () -> BCrypt.hashpw(password, BCrypt.gensalt()));
+    }
+
+    /**
+     * Check raw password against hash
+     *
+     * @param password raw password
+     * @param hash password hash
+     * @return true - password is matched, false otherwise
+     */
+    public boolean check(String password, String hash) {
+        return execute(checkTimer, () -> BCrypt.checkpw(password, hash));
+    }
+
+    private <T> T execute(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full");
+            throw new TryAgainException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new TryAgainException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.api.response.StandardResponse;
+import com.github.sibmaks.sp.conf.RoomEventProperties;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.exception.NotAllowedException;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.UnauthorizedException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Room events service.
+ * Keeps room subscribers and pushes actual room info to them after each room change.
+ * Also keeps parked long-poll requests, which are completed on room change.
+ * Client session is checked again on each push, so logged out or expired session doesn't receive room info.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoomEventService {
+    /**
+     * Name of server sent event with room info
+     */
+    public static final String ROOM_EVENT = "room";
+
+    private final RoomStateEngine roomStateEngine;
+    private final RoomEventProperties roomEventProperties;
+    private final RoomMetrics roomMetrics;
+    private final SessionService sessionService;
+    private final ConcurrentMap<Long, Set<RoomSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<RoomPoller>> pollers = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribe user on room changes.
+     * Current room info is sent right after subscription.
+     * If user is not participant of room then {@link NotFoundException} will be thrown
+     *
+     * @param user user domain
+     * @param sessionId client session identifier
+     * @param roomId room identifier
+     * @return server sent events emitter
+     */
+    public SseEmitter subscribe(User user, String sessionId, long roomId) {
+        var roomState = roomStateEngine.get(roomId);
+        if (roomState == null || !roomState.hasParticipant(user.getId())) {
+            throw new NotFoundException();
+        }
+        var emitter = new SseEmitter(roomEventProperties.getTimeout().toMillis());
+        var subscriber = new RoomSubscriber(sessionId, emitter);
+        subscribers.compute(roomId, (id, roomSubscribers) -> {
+            var actual = roomSubscribers == null ? ConcurrentHashMap.<RoomSubscriber>newKeySet() : roomSubscribers;
+            actual.add(subscriber);
+            return actual;
+        });
+        emitter.onCompletion(() -> unsubscribe(roomId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(roomId, subscriber));
+        emitter.onError(e -> unsubscribe(roomId, subscriber));
+
+        send(subscriber, roomState);
+        return emitter;
+    }
+
+    /**
+     * Remove subscriber from room subscribers
+     *
+     * @param roomId room identifier
+     * @param subscriber room subscriber
+     */
+    private void unsubscribe(long roomId, RoomSubscriber subscriber) {
+        subscribers.computeIfPresent(roomId, (id, roomSubscribers) -> {
+            roomSubscribers.remove(subscriber);
+            return roomSubscribers.isEmpty() ? null : roomSubscribers;
+        });
+    }
+
+    /**
+     * Park user request until room version differs from passed one or poll timeout is passed.
+     * Parked request doesn't hold servlet container thread.
+     * If user is not participant of room then {@link NotFoundException} will be thrown
+     *
+     * @param user user domain
+     * @param sessionId client session identifier
+     * @param roomId room identifier
+     * @param sinceVersion room version known by client
+     * @return deferred room info
+     */
+    public DeferredResult<StandardResponse> poll(User user, String sessionId, long roomId, long sinceVersion) {
+        var roomState = roomStateEngine.get(roomId);
+        if (roomState == null || !roomState.hasParticipant(user.getId())) {
+            throw new NotFoundException();
+        }
+        var result = new DeferredResult<StandardResponse>(roomEventProperties.getPollTimeout().toMillis());
+        var poller = new RoomPoller(sessionId, sinceVersion, result);
+        pollers.compute(roomId, (id, roomPollers) -> {
+            var actual = roomPollers == null ? ConcurrentHashMap.<RoomPoller>newKeySet() : roomPollers;
+            actual.add(poller);
+            return actual;
+        });
+        result.onCompletion(() -> unpoll(roomId, poller));
+        result.onTimeout(() -> complete(poller, roomStateEngine.get(roomId)));
+        result.onError(e -> unpoll(roomId, poller));
+
+        // state is taken again after registration, so change committed in between is not lost
+        roomState = roomStateEngine.get(roomId);
+        if (roomState == null || roomState.getRoom().getVersion() != sinceVersion) {
+            complete(poller, roomState);
+        }
+        return result;
+    }
+
+    /**
+     * Remove poller from room pollers
+     *
+     * @param roomId room identifier
+     * @param poller room poller
+     */
+    private void unpoll(long roomId, RoomPoller poller) {
+        pollers.computeIfPresent(roomId, (id, roomPollers) -> {
+            roomPollers.remove(poller);
+            return roomPollers.isEmpty() ? null : roomPollers;
+        });
+    }
+
+    /**
+     * Push actual room info to all room subscribers and complete parked room pollers.
+     * Executed after room change transaction commit, room state is taken once for all subscribers.
+     *
+     * @param event room changed event
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        var roomSubscribers = subscribers.getOrDefault(event.getRoomId(), Set.of());
+        var roomPollers = pollers.getOrDefault(event.getRoomId(), Set.of());
+        if (roomSubscribers.isEmpty() && roomPollers.isEmpty()) {
+            return;
+        }
+        var roomState = roomStateEngine.get(event.getRoomId());
+        for (var poller : roomPollers) {
+            if (roomState == null || roomState.getRoom().getVersion() != poller.getSinceVersion()) {
+                complete(poller, roomState);
+            }
+        }
+        if (roomState == null) {
+            roomSubscribers.forEach(it -> it.getEmitter().complete());
+            return;
+        }
+        for (var subscriber : roomSubscribers) {
+            send(subscriber, roomState);
+        }
+    }
+
+    /**
+     * Complete parked poller with actual room info.
+     * If room not exists anymore, session is logged out or expired or user is not participant
+     * then poller will be completed with error.
+     *
+     * @param poller room poller
+     * @param roomState room state or null
+     */
+    private void complete(RoomPoller poller, RoomState roomState) {
+        var result = poller.getResult();
+        var user = getSessionUser(poller.getSessionId());
+        if (user == null) {
+            result.setErrorResult(new UnauthorizedException());
+            return;
+        }
+        if (roomState == null) {
+            result.setErrorResult(new NotFoundException());
+            return;
+        }
+        try {
+            result.setResult(roomMetrics.buildResponse(user, roomState));
+        } catch (NotAllowedException e) {
+            result.setErrorResult(e);
+        }
+    }
+
+    /**
+     * Send room info to subscriber.
+     * If session is logged out or expired or user is not participant of room anymore then subscription will be completed.
+     *
+     * @param subscriber room subscriber
+     * @param roomState room state
+     */
+    private void send(RoomSubscriber subscriber, RoomState roomState) {
+        var emitter = subscriber.getEmitter();
+        var user = getSessionUser(subscriber.getSessionId());
+        if (user == null) {
+            emitter.complete();
+            return;
+        }
+        try {
+            var response = roomMetrics.buildResponse(user, roomState);
+            emitter.send(SseEmitter.event()
+                    .name(ROOM_EVENT)
+                    .data(response.getRoomInfo()));
+        } catch (NotAllowedException e) {
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Room event sending failed", e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Get actual user of client session.
+     * Lookup is cached by session service, so it doesn't touch DB while session is cached.
+     *
+     * @param sessionId client session identifier
+     * @return session's user or null if client session is logged out or expired
+     */
+    private User getSessionUser(String sessionId) {
+        try {
+            return sessionService.getSessionUser(sessionId);
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Room subscriber: client session and its events emitter
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class RoomSubscriber {
+        private final String sessionId;
+        private final SseEmitter emitter;
+    }
+
+    /**
+     * Room poller: client session, room version known by client and its parked request result
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class RoomPoller {
+        private final String sessionId;
+        private final long sinceVersion;
+        private final DeferredResult<StandardResponse> result;
+    }
+}
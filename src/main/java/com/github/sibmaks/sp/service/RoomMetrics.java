@@ -0,0 +1,163 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.api.response.GetRoomResponse;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.RoomState;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Room domain metrics.
+ * Room read latency is split to snapshot loading from DB ({@code app.room.state.load})
+ * and response building ({@code app.room.response.build}), response building time includes participant grouping
+ * and groups serialization if snapshot groups are not built yet, see {@link RoomState#getGroupInfos()}
+ * and {@link RoomState#getGroupInfosJson()}.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Component
+public class RoomMetrics {
+    public static final String CREATE = "create";
+    public static final String JOIN = "join";
+    public static final String VOTE = "vote";
+    public static final String SET_VOTING = "setVoting";
+
+    private static final String OPERATION_METRIC = "app.room.operation";
+    private static final String RESPONSE_METRIC = "app.room.response.build";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer stateLoadTimer;
+    private final DistributionSummary participantsSummary;
+    private final Timer responseCachedGroupsTimer;
+    private final Timer responseBuiltGroupsTimer;
+    private final AtomicLong activeRooms = new AtomicLong();
+    private final AtomicLong activeParticipants = new AtomicLong();
+    private final AtomicLong activeSessions = new AtomicLong();
+
+    @Autowired
+    public RoomMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stateLoadTimer = Timer.builder("app.room.state.load")
+                .description("Room snapshot loading time from DB")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.participantsSummary = DistributionSummary.builder("app.room.participants")
+                .description("Participants per not expired room, recorded for each room on each activity update")
+                .baseUnit("participants")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+        this.responseCachedGroupsTimer = responseTimer("cached");
+        this.responseBuiltGroupsTimer = responseTimer("built");
+        Gauge.builder("app.room.active", activeRooms, AtomicLong::get)
+                .description("Amount of not expired rooms")
+                .register(meterRegistry);
+        Gauge.builder("app.room.participants.active", activeParticipants, AtomicLong::get)
+                .description("Amount of participants in not expired rooms")
+                .register(meterRegistry);
+        Gauge.builder("app.session.active", activeSessions, AtomicLong::get)
+                .description("Amount of valid sessions stored in DB")
+                .register(meterRegistry);
+    }
+
+    private Timer responseTimer(String groups) {
+        return Timer.builder(RESPONSE_METRIC)
+                .description("Room info response building time")
+                .tag("groups", groups)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execute room operation and record its time
+     *
+     * @param operation operation name
+     * @param action operation
+     * @param <T> operation result type
+     * @return operation result
+     */
+    public <T> T record(String operation, Supplier<T> action) {
+        var sample = Timer.start(meterRegistry);
+        try {
+            var result = action.get();
+            stop(sample, operation, NO_EXCEPTION);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, operation, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    /**
+     * Execute room operation and record its time
+     *
+     * @param operation operation name
+     * @param action operation
+     */
+    public void record(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void stop(Timer.Sample sample, String operation, String exception) {
+        sample.stop(Timer.builder(OPERATION_METRIC)
+                .description("Room operation time, excluding transaction commit")
+                .tag("operation", operation)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Load room snapshot and record loading time
+     *
+     * @param loader snapshot loader
+     * @return room snapshot or null if room not exists
+     */
+    public RoomState loadState(Supplier<RoomState> loader) {
+        return stateLoadTimer.record(loader);
+    }
+
+    /**
+     * Build room info response and record building time
+     *
+     * @param user viewer
+     * @param roomState room snapshot
+     * @return room info response
+     */
+    public GetRoomResponse buildResponse(User user, RoomState roomState) {
+        var timer = roomState.hasGroupInfos() ? responseCachedGroupsTimer : responseBuiltGroupsTimer;
+        return timer.record(() -> new GetRoomResponse(user, roomState));
+    }
+
+    /**
+     * Update activity gauges and record participants of each not expired room
+     *
+     * @param rooms amount of not expired rooms
+     * @param roomParticipants amount of participants in each not expired room
+     * @param sessions amount of valid sessions
+     */
+    public void setActivity(long rooms, List<Long> roomParticipants, long sessions) {
+        var participants = 0L;
+        for (var it : roomParticipants) {
+            participantsSummary.record(it);
+            participants += it;
+        }
+        activeRooms.set(rooms);
+        activeParticipants.set(participants);
+        activeSessions.set(sessions);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.RoomNotifyProperties;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Listener of room changes made by any application instance.
+ * Each local {@link RoomChangedEvent} is sent in room change transaction as
+ * {@code NOTIFY room_changed, '<roomId>:<version>:<type>:<userId>:<instanceId>'},
+ * notification is delivered on transaction commit only.
+ * One dedicated connection per instance listens the channel and publishes typed {@link RoomChangedEvent},
+ * so room state is invalidated and local subscribers get the same delta as on instance made the change.
+ * Notifications sent by this instance are skipped, they were already handled locally.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoomNotificationListener implements SmartLifecycle {
+    /**
+     * Notification channel with room changes
+     */
+    public static final String CHANNEL = "room_changed";
+    private static final int NOTIFICATIONS_TIMEOUT = 1000;
+    private static final String NOTIFY_SQL = "select pg_notify(?, " +
+            "r.id || ':' || r.version || ':' || ? || ':' || ? || ':' || ?) from room r where r.id = ?";
+
+    /**
+     * Identifier of this application instance, used to skip own notifications
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final String instanceId = UUID.randomUUID().toString();
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomStateEngine roomStateEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomNotifyProperties roomNotifyProperties;
+    private volatile boolean running;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        if (!roomNotifyProperties.isEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "room-notify-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Listen notifications until listener is stopped.
+     * Connection is reopened after failure, all room states are dropped because notifications could be missed.
+     */
+    private void listen() {
+        while (running) {
+            try (var connection = dataSource.getConnection()) {
+                var pgConnection = connection.unwrap(PGConnection.class);
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                roomStateEngine.evictAll();
+                log.info("Room notifications listening started");
+                while (running) {
+                    var notifications = pgConnection.getNotifications(NOTIFICATIONS_TIMEOUT);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (var notification : notifications) {
+                        onNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Room notifications listening failed", e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify other instances about local room change.
+     * Executed before room change transaction commit, so notification is delivered together with the change.
+     * Room version is taken from DB, so it is the version written by this transaction.
+     * Changes received from other instances are not sent again.
+     *
+     * @param event room changed event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        jdbcTemplate.queryForList(NOTIFY_SQL,
+                CHANNEL, event.getType().name(), event.getUserId(), instanceId, event.getRoomId());
+    }
+
+    /**
+     * Handle room change notification.
+     * Notification payload format: {@code <roomId>:<version>:<type>:<userId>:<instanceId>}
+     *
+     * @param payload notification payload
+     */
+    void onNotification(String payload) {
+        var parts = payload.split(":");
+        if (parts.length != 5) {
+            log.warn("Wrong room notification: {}", payload);
+            return;
+        }
+        if (instanceId.equals(parts[4])) {
+            return;
+        }
+        RoomChangedEvent event;
+        try {
+            event = new RoomChangedEvent(
+                    Long.parseLong(parts[0]),
+                    RoomChangedEvent.Type.valueOf(parts[2]),
+                    Long.parseLong(parts[3]),
+                    true
+            );
+        } catch (IllegalArgumentException e) {
+            log.warn("Wrong room notification: {}", payload);
+            return;
+        }
+        log.debug("Room {} changed to version {} by other instance", event.getRoomId(), parts[1]);
+        eventPublisher.publishEvent(event);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(roomNotifyProperties.getReconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.github.sibmaks.sp.service;
 
+import com.github.sibmaks.sp.cache.RoleCache;
 import com.github.sibmaks.sp.domain.*;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomInfoDto;
+import com.github.sibmaks.sp.dto.RoomPageView;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
 import com.github.sibmaks.sp.exception.NotAllowedException;
 import com.github.sibmaks.sp.exception.NotFoundException;
 import com.github.sibmaks.sp.exception.WrongSecretCodeException;
+import com.github.sibmaks.sp.jfr.RoomVoteEvent;
 import com.github.sibmaks.sp.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.HtmlUtils;
@@ -26,29 +34,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class RoomService {
     private final RoomRepository roomRepository;
-    private final RoleRepository roleRepository;
     private final ParticipantRepository participantRepository;
     private final RoomRoleRepository roomRoleRepository;
     private final RoomSecretRepository roomSecretRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomStateEngine roomStateEngine;
+    private final RoleCache roleCache;
+    private final RoomMetrics roomMetrics;
 
     /**
-     * Get rooms for user, where user is participant in
+     * Get rooms info with participants count for user, where user is participant in
      *
-     * @param userUd user identifier
-     * @return lsit of rooms
+     * @param userId user identifier
+     * @return list of rooms info
      */
-    public List<Room> getRooms(long userUd) {
-        return roomRepository.findByUserId(userUd);
-    }
-
-    /**
-     * Get participant count in room
-     *
-     * @param room room domain
-     * @return count of participant in room
-     */
-    public long getParticipantCount(Room room) {
-        return participantRepository.countByParticipantIdRoom(room);
+    public List<RoomInfoDto> getRoomInfos(long userId) {
+        return roomRepository.findInfoByUserId(userId);
     }
 
     /**
@@ -64,7 +65,11 @@ public class RoomService {
      */
     @Transactional
     public Room createRoom(User user, String name, String secretCode, List<Integer> roles, int days, int roleId) {
-        List<Role> rolesList = roleRepository.findAllByIdIn(roles);
+        return roomMetrics.record(RoomMetrics.CREATE, () -> doCreateRoom(user, name, secretCode, roles, days, roleId));
+    }
+
+    private Room doCreateRoom(User user, String name, String secretCode, List<Integer> roles, int days, int roleId) {
+        List<Role> rolesList = roleCache.getRoles(roles);
         if(rolesList.isEmpty() || roles.size() != rolesList.size()) {
             throw new NotFoundException();
         }
@@ -128,10 +133,51 @@ public class RoomService {
         return roomRepository.findByParticipantAndId(user.getId(), roomId);
     }
 
+    /**
+     * Get actual room state for user.
+     * State is served from memory, see {@link RoomStateEngine}.
+     * If user is not participant or room not exists then null will be returned
+     *
+     * @param user user domain
+     * @param roomId room identifier
+     * @return room state or null
+     */
+    public RoomState getRoomState(User user, long roomId) {
+        var state = roomStateEngine.get(roomId);
+        if (state == null || !state.hasParticipant(user.getId())) {
+            return null;
+        }
+        return state;
+    }
+
+    /**
+     * Get everything needed to render room page for user.
+     * Room state is served from memory, see {@link RoomStateEngine}, roles from {@link RoleCache},
+     * so page is rendered without DB queries while room is not changed.
+     * On cache misses state is loaded by two queries and roles by one query.
+     * If room not exists then null will be returned
+     *
+     * @param user user domain
+     * @param roomId room identifier
+     * @return room page view or null
+     */
+    public RoomPageView getRoomPage(User user, long roomId) {
+        var state = roomStateEngine.get(roomId);
+        if (state == null) {
+            return null;
+        }
+        if (state.hasParticipant(user.getId())) {
+            var secretCode = state.getRoom().getAuthor().getId() == user.getId() ? state.getSecretCode() : null;
+            return new RoomPageView(state, true, List.of(), state.hasSecret(), secretCode);
+        }
+        return new RoomPageView(state, false, roleCache.getRoomRoles(roomId), state.hasSecret(), null);
+    }
+
     /**
      * Method for joining user to room with specific role.
      * Secret code can be passed as null if it doesn't require for room
-     * If room or role not found then {@link NotFoundException} will be thrown
+     * If room or role not found or room expired then {@link NotFoundException} will be thrown.
+     * Room roles are taken from {@link RoleCache}, room itself is not loaded
      *
      * @param user domain to user domain
      * @param roomId room identifier
@@ -140,10 +186,11 @@ public class RoomService {
      * @return room domain in which user was joined
      */
     public Room joinRoom(User user, long roomId, int roleId, String secretCode) {
-        var room = roomRepository.findById(roomId).orElseThrow(NotFoundException::new);
-        var role = roomRoleRepository.findAllByRoomRoleIdRoom(room).stream()
-                .map(RoomRole::getRoomRoleId)
-                .map(RoomRoleId::getRole)
+        return roomMetrics.record(RoomMetrics.JOIN, () -> doJoinRoom(user, roomId, roleId, secretCode));
+    }
+
+    private Room doJoinRoom(User user, long roomId, int roleId, String secretCode) {
+        var role = roleCache.getRoomRoles(roomId).stream()
                 .filter(it -> it.getId() == roleId)
                 .findFirst()
                 .orElseThrow(NotFoundException::new);
@@ -151,6 +198,8 @@ public class RoomService {
         if (roomSecret != null && !roomSecret.getSecretCode().equals(secretCode)) {
             throw new WrongSecretCodeException();
         }
+        // room exists, otherwise it has no roles
+        var room = roomRepository.getReferenceById(roomId);
         return joinRoom(user, room, role);
     }
 
@@ -172,6 +221,8 @@ public class RoomService {
                                 .build()
                 ).build();
         participantRepository.save(participant);
+        roomRepository.incrementVersion(room.getId());
+        eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.JOINED, user.getId()));
         return getRoom(user, room.getId());
     }
 
@@ -184,6 +235,10 @@ public class RoomService {
     public void leaveRoom(User user, long roomId) {
         var room = getRoom(user, roomId);
         participantRepository.deleteByParticipantIdUserAndParticipantIdRoom(user, room);
+        if (room != null) {
+            roomRepository.incrementVersion(room.getId());
+            eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.LEFT, user.getId()));
+        }
     }
 
     /**
@@ -192,12 +247,15 @@ public class RoomService {
      * @param room room domain
      * @return list of all participant
      */
-    public List<Participant> getParticipants(Room room) {
-        return participantRepository.findAllByParticipantIdRoom(room);
+    public List<ParticipantDto> getParticipants(Room room) {
+        return participantRepository.findAllDtoByRoomId(room.getId());
     }
 
     /**
-     * Vote user in room with passed score
+     * Vote user in room with passed score.
+     * Score is updated by one statement, room and participant are not loaded, room version is increased.
+     * Vote is reported as {@link RoomVoteEvent}.
+     * {@link NotAllowedException} will be thrown if room not found, user is not participant or room is not in voting state
      *
      * @param user user domain
      * @param roomId room identifier
@@ -205,17 +263,27 @@ public class RoomService {
      */
     @Transactional
     public void vote(User user, long roomId, String score) {
-        var room = roomRepository.findById(roomId).orElseThrow(NotFoundException::new);
-        ParticipantId participantId = ParticipantId.builder()
-                .user(user)
-                .room(room)
-                .build();
-        var participant = participantRepository.findByParticipantId(participantId).orElseThrow(NotAllowedException::new);
-        if(!participant.getParticipantId().getRoom().isVoting()) {
-            throw new NotAllowedException();
+        roomMetrics.record(RoomMetrics.VOTE, () -> doVote(user, roomId, score));
+    }
+
+    private void doVote(User user, long roomId, String score) {
+        var event = new RoomVoteEvent();
+        event.begin();
+        try {
+            var updated = participantRepository.vote(user.getId(), roomId, HtmlUtils.htmlEscape(score));
+            if (updated == 0) {
+                throw new NotAllowedException();
+            }
+            roomRepository.incrementVersion(roomId);
+            event.setAccepted(true);
+            eventPublisher.publishEvent(new RoomChangedEvent(roomId, RoomChangedEvent.Type.VOTED, user.getId()));
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoomId(roomId);
+                event.setUserId(user.getId());
+                event.commit();
+            }
         }
-        participant.setScore(HtmlUtils.htmlEscape(score));
-        participantRepository.save(participant);
     }
 
     /**
@@ -231,6 +299,10 @@ public class RoomService {
      */
     @Transactional
     public Room setVoting(User user, long roomId, boolean voting) {
+        return roomMetrics.record(RoomMetrics.SET_VOTING, () -> doSetVoting(user, roomId, voting));
+    }
+
+    private Room doSetVoting(User user, long roomId, boolean voting) {
         var room = roomRepository.findById(roomId).orElseThrow(NotFoundException::new);
         if(room.getAuthor().getId() != user.getId()) {
             throw new NotAllowedException();
@@ -239,17 +311,22 @@ public class RoomService {
         if(voting) {
             participantRepository.resetScore(room);
         }
-        return roomRepository.save(room);
+        room = roomRepository.save(room);
+        roomRepository.incrementVersion(roomId);
+        var type = voting ? RoomChangedEvent.Type.VOTING_STARTED : RoomChangedEvent.Type.VOTING_FINISHED;
+        eventPublisher.publishEvent(new RoomChangedEvent(roomId, type, user.getId()));
+        return room;
     }
 
     /**
-     * Get all roles available in room
+     * Get all roles available in room.
+     * If room not exists or expired then empty list will be returned.
      *
      * @param roomId room identifier
      * @return list of allowed roles
      */
     public List<Role> getRoles(long roomId) {
-        return roleRepository.findAllForRoom(roomId);
+        return roleCache.getRoomRoles(roomId);
     }
 
     /**
@@ -257,33 +334,6 @@ public class RoomService {
      * @return list of roles
      */
     public List<Role> getRoles() {
-        return roleRepository.findAllByOrderById();
-    }
-
-    /**
-     * Method for getting fact of secret code existing for sepcific room
-     *
-     * @param roomId room identifier
-     * @return true - secretCode existsm false otherwise
-     */
-    public boolean hasSecret(long roomId) {
-        return roomSecretRepository.existsById(roomId);
-    }
-
-    /**
-     * Get secret for room.
-     * Allowed only for room's author, null will be returned otherwise.
-     *
-     * @param user user domain (author)
-     * @param room room domain
-     * @return room secret code
-     */
-    public String getSecret(User user, Room room) {
-        if(room.getAuthor().getId() != user.getId()) {
-            return null;
-        }
-        return roomSecretRepository.findById(room.getId())
-                .map(RoomSecret::getSecretCode)
-                .orElse(null);
+        return roleCache.getRoles();
     }
 }
@@ -0,0 +1,159 @@
+package com.github.sibmaks.sp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.conf.RoomStateProperties;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.jfr.RoomSnapshotBuildEvent;
+import com.github.sibmaks.sp.repository.ParticipantRepository;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory room state engine.
+ * Keeps snapshots of live rooms, so room reads don't touch DB while room is not changed.
+ * Loading and invalidation are serialized per room by lock shards, snapshot is invalidated after
+ * each room change commit, so readers never see state older than the last local commit.
+ * DB stays the source of truth: any snapshot can be dropped and loaded again, e.g. after restart.
+ * Snapshot is loaded by two queries: room with author and secret code, room participants.
+ * Participant groups of snapshot are serialized by application object mapper once per snapshot.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class RoomStateEngine {
+    private static final int SHARDS = 64;
+
+    private final RoomRepository roomRepository;
+    private final ParticipantRepository participantRepository;
+    private final RoomStateProperties roomStateProperties;
+    private final RoomMetrics roomMetrics;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Long, RoomState> states = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = IntStream.range(0, SHARDS)
+            .mapToObj(it -> new ReentrantLock())
+            .toArray(ReentrantLock[]::new);
+
+    /**
+     * Get actual room state.
+     * State is loaded from DB if it is not in memory or expired.
+     *
+     * @param roomId room identifier
+     * @return room state or null if room not exists
+     */
+    public RoomState get(long roomId) {
+        var state = states.get(roomId);
+        if (isActual(state)) {
+            return state;
+        }
+        var lock = getLock(roomId);
+        lock.lock();
+        try {
+            state = states.get(roomId);
+            if (isActual(state)) {
+                return state;
+            }
+            state = roomMetrics.loadState(() -> load(roomId));
+            if (state == null) {
+                states.remove(roomId);
+            } else {
+                states.put(roomId, state);
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop room state after room change transaction commit.
+     * Executed before other room change listeners, so they get actual state.
+     *
+     * @param event room changed event
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        evict(event.getRoomId());
+    }
+
+    /**
+     * Drop room state
+     *
+     * @param roomId room identifier
+     */
+    public void evict(long roomId) {
+        var lock = getLock(roomId);
+        lock.lock();
+        try {
+            states.remove(roomId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop all room states.
+     * Used when room changes could be missed, e.g. after notifications listener reconnect.
+     */
+    public void evictAll() {
+        states.clear();
+    }
+
+    /**
+     * Method executed at fixed rate and drop expired room states from memory
+     */
+    @Scheduled(fixedDelay = 1000L * 60, initialDelay = 1000L * 60)
+    public void evictExpired() {
+        states.values().removeIf(it -> !isActual(it));
+        log.debug("Room states in memory: {}", states.size());
+    }
+
+    private RoomState load(long roomId) {
+        var event = new RoomSnapshotBuildEvent();
+        event.begin();
+        RoomState state = null;
+        try {
+            var room = roomRepository.findWithSecretById(roomId).orElse(null);
+            if (room == null) {
+                return null;
+            }
+            var participants = participantRepository.findAllDtoByRoomId(roomId);
+            state = new RoomState(room.getRoom(), room.getSecretCode(), Collections.unmodifiableList(participants),
+                    System.currentTimeMillis(), objectMapper);
+            return state;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setRoomId(roomId);
+                event.setFound(state != null);
+                event.setParticipants(state == null ? 0 : state.getParticipants().size());
+                event.commit();
+            }
+        }
+    }
+
+    private boolean isActual(RoomState state) {
+        return state != null &&
+                System.currentTimeMillis() - state.getLoadedAt() < roomStateProperties.getTtl().toMillis();
+    }
+
+    private ReentrantLock getLock(long roomId) {
+        return locks[Math.floorMod(roomId, SHARDS)];
+    }
+}
@@ -1,10 +1,13 @@
 package com.github.sibmaks.sp.service;
 
+import com.github.sibmaks.sp.cache.SessionCache;
 import com.github.sibmaks.sp.conf.SessionTtlProperties;
 import com.github.sibmaks.sp.domain.ClientSession;
 import com.github.sibmaks.sp.domain.User;
 import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.jfr.SessionLookupEvent;
 import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,9 +30,13 @@ import java.util.UUID;
 public class SessionService {
     private final ClientSessionRepository clientSessionRepository;
     private final SessionTtlProperties sessionTtlProperties;
+    private final SessionCache sessionCache;
+    private final SessionTokenService sessionTokenService;
+    private final UserRepository userRepository;
 
     /**
      * Create session for passed user.
+     * In token session mode signed token is issued and DB is not accessed.
      *
      * @param user user domain
      * @return new session identifier
@@ -40,6 +47,12 @@ public class SessionService {
 
         Date validTo = getValidToDate(createdAt);
 
+        if (sessionTokenService.isEnabled()) {
+            var token = sessionTokenService.issue(user.getId(), createdAt, validTo);
+            sessionCache.put(sessionTokenService.verify(token), user);
+            return token;
+        }
+
         var clientSession = ClientSession.builder()
                 .sessionId(UUID.randomUUID().toString())
                 .userId(user.getId())
@@ -71,11 +84,70 @@ public class SessionService {
      * @return client session domain
      */
     public ClientSession getSession(String sessionId) {
+        var cached = sessionId == null ? null : sessionCache.get(sessionId);
+        if (cached != null) {
+            return cached.getSession();
+        }
+        if (sessionId != null && SessionTokenService.isToken(sessionId)) {
+            return Optional.ofNullable(sessionTokenService.verify(sessionId))
+                    .orElseThrow(NotFoundException::new);
+        }
         return Optional.ofNullable(sessionId)
                 .flatMap(clientSessionRepository::findById)
                 .orElseThrow(NotFoundException::new);
     }
 
+    /**
+     * Get user of current client session.
+     * Session and user are loaded by one query, expired sessions are ignored.
+     * Session token is verified without DB, only user is loaded.
+     * Result is cached, so repeated calls don't touch DB until cache entry expired.
+     * Lookup is reported as {@link SessionLookupEvent}.
+     * {@link NotFoundException} will be thrown if session not found, expired or user not found
+     *
+     * @param sessionId session identifier
+     * @return session's user domain
+     */
+    public User getSessionUser(String sessionId) {
+        if (sessionId == null) {
+            throw new NotFoundException();
+        }
+        var event = new SessionLookupEvent();
+        event.begin();
+        try {
+            var user = findSessionUser(sessionId, event);
+            event.setUserId(user.getId());
+            event.setFound(true);
+            return user;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private User findSessionUser(String sessionId, SessionLookupEvent event) {
+        var cached = sessionCache.get(sessionId);
+        if (cached != null) {
+            event.setSource(SessionLookupEvent.SOURCE_CACHE);
+            return cached.getUser();
+        }
+        if (SessionTokenService.isToken(sessionId)) {
+            event.setSource(SessionLookupEvent.SOURCE_TOKEN);
+            var session = sessionTokenService.verify(sessionId);
+            if (session == null) {
+                throw new NotFoundException();
+            }
+            var user = userRepository.findById(session.getUserId())
+                    .orElseThrow(NotFoundException::new);
+            sessionCache.put(session, user);
+            return user;
+        }
+        event.setSource(SessionLookupEvent.SOURCE_DB);
+        var sessionUser = clientSessionRepository.findValidWithUser(sessionId)
+                .orElseThrow(NotFoundException::new);
+        sessionCache.put(sessionUser.getSession(), sessionUser.getUser());
+        return sessionUser.getUser();
+    }
+
     /**
      * Check is session id belong to authorized session or not.
      *
@@ -86,18 +158,41 @@ public class SessionService {
         if (sessionId == null) {
             return false;
         }
-        return clientSessionRepository.existsById(sessionId);
+        if (sessionCache.get(sessionId) != null) {
+            return true;
+        }
+        if (SessionTokenService.isToken(sessionId)) {
+            return sessionTokenService.verify(sessionId) != null;
+        }
+        return clientSessionRepository.existsBySessionIdAndValidToAfter(sessionId, new Date());
     }
 
     /**
      * Logout session by session id.
+     * Session token is revoked until it expired.
      * If session not exists or invalid then noting happened
      *
      * @param sessionId session identifier
      */
     public void logout(String sessionId) {
-        if (sessionId != null) {
+        if (sessionId == null) {
+            return;
+        }
+        sessionCache.evict(sessionId);
+        if (SessionTokenService.isToken(sessionId)) {
+            sessionTokenService.revoke(sessionId);
+        } else {
             clientSessionRepository.deleteById(sessionId);
         }
     }
+
+    /**
+     * Evict all cached sessions of user.
+     * Should be called after user data changed: password, name, etc.
+     *
+     * @param userId user identifier
+     */
+    public void evictUser(long userId) {
+        sessionCache.evictUser(userId);
+    }
 }
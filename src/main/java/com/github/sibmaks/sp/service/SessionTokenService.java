@@ -0,0 +1,187 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.SessionProperties;
+import com.github.sibmaks.sp.domain.ClientSession;
+import com.github.sibmaks.sp.domain.RevokedSession;
+import com.github.sibmaks.sp.repository.RevokedSessionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stateless session tokens service.
+ * Token format: {@code base64url(userId:createdAt:validTo:nonce).base64url(HMAC-SHA256)}.
+ * Token is verified without DB access, revoked tokens are kept in memory
+ * and synchronized with revocation table, so logout on other instance is seen after sync.
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SessionTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '.';
+    private static final int NONCE_SIZE = 12;
+    private static final long SYNC_OVERLAP = 1000L * 60;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SessionProperties sessionProperties;
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private SecretKeySpec key;
+    private volatile Date syncedAt = new Date(0);
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        var secret = sessionProperties.getTokenSecret();
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.session.token-secret is required in TOKEN session mode");
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        syncRevoked();
+    }
+
+    /**
+     * Check is token session mode enabled
+     *
+     * @return true - sessions are issued as tokens, false otherwise
+     */
+    public boolean isEnabled() {
+        return sessionProperties.getMode() == SessionProperties.Mode.TOKEN;
+    }
+
+    /**
+     * Check is session identifier a token.
+     * DB session identifiers are UUIDs and never contain token separator.
+     *
+     * @param sessionId session identifier
+     * @return true - session identifier is a token, false otherwise
+     */
+    public static boolean isToken(String sessionId) {
+        return sessionId.indexOf(SEPARATOR) > 0;
+    }
+
+    /**
+     * Issue signed session token
+     *
+     * @param userId user identifier
+     * @param createdAt session creation date
+     * @param validTo session valid to date
+     * @return session token
+     */
+    public String issue(long userId, Date createdAt, Date validTo) {
+        var nonce = new byte[NONCE_SIZE];
+        random.nextBytes(nonce);
+        var payload = userId + ":" + createdAt.getTime() + ":" + validTo.getTime() + ":" + ENCODER.encodeToString(nonce);
+        var encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + SEPARATOR + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * Verify session token: signature, expiration and revocation.
+     * DB is not accessed.
+     *
+     * @param token session token
+     * @return client session built from token or null if token is invalid, expired or revoked
+     */
+    public ClientSession verify(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        var separator = token.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        var encodedPayload = token.substring(0, separator);
+        try {
+            var signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(encodedPayload), signature) || revoked.containsKey(ENCODER.encodeToString(signature))) {
+                return null;
+            }
+            var parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":");
+            var validTo = new Date(Long.parseLong(parts[2]));
+            if (!validTo.after(new Date())) {
+                return null;
+            }
+            return ClientSession.builder()
+                    .sessionId(token)
+                    .userId(Long.parseLong(parts[0]))
+                    .createdAt(new Date(Long.parseLong(parts[1])))
+                    .validTo(validTo)
+                    .build();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.debug("Wrong session token", e);
+            return null;
+        }
+    }
+
+    /**
+     * Revoke session token until it expired.
+     * If token is invalid then nothing happened.
+     *
+     * @param token session token
+     */
+    public void revoke(String token) {
+        var session = verify(token);
+        if (session == null) {
+            return;
+        }
+        // token identifier is re-encoded signature, so other encodings of the same signature are revoked too
+        var tokenId = ENCODER.encodeToString(DECODER.decode(token.substring(token.lastIndexOf(SEPARATOR) + 1)));
+        revoked.put(tokenId, session.getValidTo().getTime());
+        revokedSessionRepository.save(RevokedSession.builder()
+                .tokenId(tokenId)
+                .validTo(session.getValidTo())
+                .revokedAt(new Date())
+                .build());
+    }
+
+    /**
+     * Method executed at fixed rate and load tokens revoked by other application instances.
+     * Expired tokens are dropped from memory.
+     */
+    @Scheduled(fixedDelay = 1000L * 10, initialDelay = 1000L * 10)
+    public void syncRevoked() {
+        if (!isEnabled()) {
+            return;
+        }
+        var now = new Date();
+        for (var it : revokedSessionRepository.findAllByRevokedAtAfterAndValidToAfter(syncedAt, now)) {
+            revoked.put(it.getTokenId(), it.getValidTo().getTime());
+        }
+        // overlap covers clock difference between instances, reloaded tokens are just put again
+        syncedAt = new Date(now.getTime() - SYNC_OVERLAP);
+        revoked.values().removeIf(it -> it <= now.getTime());
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Session token signing failed", e);
+        }
+    }
+}
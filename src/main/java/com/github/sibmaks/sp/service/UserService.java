@@ -3,11 +3,11 @@ package com.github.sibmaks.sp.service;
 import com.github.sibmaks.sp.domain.User;
 import com.github.sibmaks.sp.exception.LoginIsBusyException;
 import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.TryAgainException;
 import com.github.sibmaks.sp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.HtmlUtils;
@@ -26,11 +26,13 @@ import java.util.Locale;
 public class UserService {
     private final SessionService sessionService;
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
 
     /**
      * Login client by login and password.
      * Return session identifier on success.
-     * If user not found or password is wrong then NotFound result code will be returned
+     * If user not found or password is wrong then NotFound result code will be returned.
+     * If password hashing is overloaded then {@link TryAgainException} will be thrown
      *
      * @param login user login
      * @param password user password
@@ -42,7 +44,7 @@ public class UserService {
             throw new NotFoundException();
         }
 
-        if(BCrypt.checkpw(password,user.getPassword())) {
+        if(passwordHasher.check(password, user.getPassword())) {
             return sessionService.createSession(user);
         } else {
             log.warn("Wrong password for user {}", login);
@@ -52,7 +54,8 @@ public class UserService {
 
     /**
      * Create user with passed data.
-     * If user with the same login is already exists then {@link LoginIsBusyException} will be thrown
+     * If user with the same login is already exists then {@link LoginIsBusyException} will be thrown.
+     * If password hashing is overloaded then {@link TryAgainException} will be thrown
      *
      * @param login user login
      * @param password user password
@@ -70,7 +73,7 @@ public class UserService {
 
         var user = User.builder()
                 .login(login)
-                .password(BCrypt.hashpw(password, BCrypt.gensalt()))
+                .password(passwordHasher.hash(password))
                 .firstName(HtmlUtils.htmlEscape(firstName))
                 .lastName(HtmlUtils.htmlEscape(lastName))
                 .build();
@@ -111,20 +114,23 @@ public class UserService {
         }
         if(changed) {
             userRepository.save(user);
+            sessionService.evictUser(user.getId());
         }
         return changed;
     }
 
     /**
      * Update user password.
+     * If password hashing is overloaded then {@link TryAgainException} will be thrown
      *
      * @param user user domain
      * @param password new user password
      */
     public void changePassword(User user, String password) {
-        if(password != null && !password.isEmpty() && !BCrypt.checkpw(password, user.getPassword())) {
-            user.setPassword(BCrypt.hashpw(password, BCrypt.gensalt()));
+        if(password != null && !password.isEmpty() && !passwordHasher.check(password, user.getPassword())) {
+            user.setPassword(passwordHasher.hash(password));
             userRepository.save(user);
+            sessionService.evictUser(user.getId());
         }
     }
 }
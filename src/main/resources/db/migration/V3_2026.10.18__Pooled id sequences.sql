@@ -0,0 +1,2 @@
+ALTER SEQUENCE "room_id_seq" INCREMENT BY 50;
+ALTER SEQUENCE "user_id_seq" INCREMENT BY 50;
\ No newline at end of file
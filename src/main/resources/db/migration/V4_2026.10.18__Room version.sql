@@ -0,0 +1 @@
+ALTER TABLE "room" ADD COLUMN "version" BIGINT NOT NULL DEFAULT 0;
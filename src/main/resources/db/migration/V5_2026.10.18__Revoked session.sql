@@ -0,0 +1,7 @@
+CREATE TABLE "revoked_session" (
+                                   "token_id" VARCHAR(64) PRIMARY KEY,
+                                   "valid_to" TIMESTAMP NOT NULL,
+                                   "revoked_at" TIMESTAMP NOT NULL
+);
+
+CREATE INDEX "idx_revoked_session__revoked_at" ON "revoked_session" ("revoked_at");
@@ -0,0 +1,5 @@
+CREATE INDEX "idx_room__expired" ON "room" ("expired");
+
+CREATE INDEX "idx_client_session__valid_to" ON "client_session" ("valid_to");
+
+CREATE INDEX "idx_revoked_session__valid_to" ON "revoked_session" ("valid_to");
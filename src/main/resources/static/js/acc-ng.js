@@ -85,6 +85,10 @@ angular.module('pokerApp', [])
                                 }
                             }
                         });
+                    } else if (msg.resultCode === "TryAgain") {
+                        $scope.$apply(function () {
+                            $scope.accErrorInfo = 'Service is busy, try again later';
+                        });
                     } else {
                         $scope.$apply(function () {
                             $scope.accErrorInfo = 'Service error';
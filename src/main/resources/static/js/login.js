@@ -30,6 +30,8 @@ function doLogin() {
                 window.location.reload();
             } else if(msg.resultCode === "NotFound") {
                 authErrorInfo.innerText = "Login or password is incorrect";
+            } else if(msg.resultCode === "TryAgain") {
+                authErrorInfo.innerText = "Service is busy, try again later";
             } else if(msg.resultCode === "ValidationError") {
                 for(const validationError of msg.validationErrors) {
                     if("login" === validationError.field) {
@@ -52,6 +52,10 @@ angular.module('pokerApp', [])
                         $scope.$apply(function () {
                             $scope.loginInfoField = "User with the same login already exists";
                         });
+                    } else if(msg.resultCode === "TryAgain") {
+                        $scope.$apply(function () {
+                            $scope.regErrorInfo = "Service is busy, try again later";
+                        });
                     } else {
                         $scope.$apply(function () {
                             $scope.regErrorInfo = "Service error";
@@ -17,6 +17,11 @@ angular.module('pokerApp', [])
         };
 
         $scope.vote = function (score) {
+            if ($scope.isSocketOpen()) {
+                $scope.socket.send(JSON.stringify({type: "vote", score: score}));
+                $scope.roomInfo.score = score;
+                return;
+            }
             $.ajax({
                 method: "POST",
                 url: "/api/room/vote",
@@ -46,6 +51,10 @@ angular.module('pokerApp', [])
                 item.disabled = true;
             })
             const voting = !$scope.roomInfo.voting;
+            if ($scope.isSocketOpen()) {
+                $scope.socket.send(JSON.stringify({type: "setVoting", voting: voting}));
+                return;
+            }
 
             $.ajax({
                 method: "POST",
@@ -77,10 +86,10 @@ angular.module('pokerApp', [])
         $scope.updateData = function () {
             $.ajax({
                 method: "POST",
-                url: "/api/room/getRoom",
+                url: "/api/room/pollRoom",
                 headers: {'X-Session-Id': sessionId},
                 contentType: "application/json",
-                data: JSON.stringify({roomId: $scope.roomInfo.id})
+                data: JSON.stringify({roomId: $scope.roomInfo.id, sinceVersion: $scope.roomInfo.version})
             })
             .done(function (msg) {
                 if (msg != null) {
@@ -88,6 +97,8 @@ angular.module('pokerApp', [])
                         $scope.$apply(function () {
                             $scope.roomInfo = msg.roomInfo;
                         });
+                        $scope.updateData();
+                        return;
                     } else if (msg.resultCode === "Unauthorized") {
                         window.location.reload();
                     } else {
@@ -96,9 +107,98 @@ angular.module('pokerApp', [])
                 } else {
                     alert("Service error");
                 }
+                setTimeout($scope.updateData, 3000);
+            })
+            .fail(function () {
+                setTimeout($scope.updateData, 3000);
+            });
+        }
+
+        $scope.subscribeEvents = function () {
+            if (!window.EventSource) {
+                $scope.updateData();
+                return;
+            }
+            const source = new EventSource("/api/room/" + $scope.roomInfo.id + "/events");
+            source.addEventListener("room", function (event) {
+                const roomInfo = JSON.parse(event.data);
+                $scope.$apply(function () {
+                    $scope.roomInfo = roomInfo;
+                });
             });
-            setTimeout($scope.updateData, 3000);
+            source.onerror = function () {
+                if (source.readyState === EventSource.CLOSED) {
+                    $scope.updateData();
+                }
+            };
+        }
+
+        $scope.isSocketOpen = function () {
+            return $scope.socket != null && $scope.socket.readyState === WebSocket.OPEN;
+        };
+
+        $scope.forEachParticipant = function (callback) {
+            for (const groupInfo of $scope.roomInfo.groupInfos) {
+                for (const participantInfo of groupInfo.participantInfos) {
+                    callback(participantInfo);
+                }
+            }
+        };
+
+        $scope.applyDelta = function (delta) {
+            if (delta.type === "error") {
+                if (delta.resultCode === "Unauthorized") {
+                    window.location.reload();
+                } else {
+                    alert("Service error");
+                }
+                return;
+            }
+            if (delta.type === "room") {
+                $scope.roomInfo = delta.roomInfo;
+            } else if (delta.type === "voted") {
+                $scope.forEachParticipant(function (participantInfo) {
+                    if (participantInfo.id === delta.userId) {
+                        participantInfo.voted = delta.voted;
+                    }
+                });
+            } else if (delta.type === "started") {
+                $scope.roomInfo.voting = true;
+                $scope.roomInfo.score = null;
+                $scope.forEachParticipant(function (participantInfo) {
+                    participantInfo.voted = false;
+                    participantInfo.score = null;
+                });
+            } else if (delta.type === "revealed") {
+                $scope.roomInfo.voting = false;
+                $scope.forEachParticipant(function (participantInfo) {
+                    const score = delta.scores[participantInfo.id];
+                    participantInfo.voted = score != null;
+                    participantInfo.score = score == null ? null : score;
+                });
+            }
+            $scope.roomInfo.version = Math.max($scope.roomInfo.version, delta.version);
+        };
+
+        $scope.subscribe = function () {
+            if (!window.WebSocket) {
+                $scope.subscribeEvents();
+                return;
+            }
+            const protocol = window.location.protocol === "https:" ? "wss://" : "ws://";
+            const socket = new WebSocket(protocol + window.location.host + "/api/room/ws?roomId=" + $scope.roomInfo.id);
+            socket.onmessage = function (event) {
+                const delta = JSON.parse(event.data);
+                $scope.$apply(function () {
+                    $scope.applyDelta(delta);
+                });
+            };
+            socket.onclose = function () {
+                $scope.socket = null;
+                $scope.subscribeEvents();
+            };
+            $scope.socket = socket;
         }
 
-        $scope.updateData();
+        $scope.subscribe();
     });
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.github.sibmaks.sp;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles({"test", "virtual"})
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VirtualThreadsProfileTest {
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+    @Autowired
+    @Qualifier("taskScheduler")
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void testAsyncExecutor() throws ExecutionException, InterruptedException, TimeoutException {
+        var virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(virtual.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testScheduler() throws ExecutionException, InterruptedException, TimeoutException {
+        var virtual = new CompletableFuture<Boolean>();
+        taskScheduler.schedule(() -> virtual.complete(Thread.currentThread().isVirtual()), Instant.now());
+
+        assertTrue(virtual.get(1, TimeUnit.SECONDS));
+    }
+}
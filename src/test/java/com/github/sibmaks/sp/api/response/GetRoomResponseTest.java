@@ -0,0 +1,129 @@
+package com.github.sibmaks.sp.api.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.exception.NotAllowedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class GetRoomResponseTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSharedGroupInfos() throws Exception {
+        var author = mockUser(1);
+        var viewer = mockUser(2);
+        var roomState = mockRoomState(author, true, null);
+
+        var authorResponse = new GetRoomResponse(author, roomState);
+        var viewerResponse = new GetRoomResponse(viewer, roomState);
+
+        assertSame(authorResponse.getRoomInfo().getGroupInfos(), viewerResponse.getRoomInfo().getGroupInfos());
+        assertTrue(authorResponse.getRoomInfo().isAuthor());
+        assertFalse(viewerResponse.getRoomInfo().isAuthor());
+        assertEquals("1", authorResponse.getRoomInfo().getScore());
+        assertNull(viewerResponse.getRoomInfo().getScore());
+        assertNull(authorResponse.getRoomInfo().getGroupInfosJson());
+
+        var groupInfos = authorResponse.getRoomInfo().getGroupInfos();
+        assertEquals(2, groupInfos.size());
+        assertEquals("DEV", groupInfos.get(0).getName());
+        assertEquals(2, groupInfos.get(0).getParticipantInfos().size());
+        assertEquals("QA", groupInfos.get(1).getName());
+
+        var participantInfo = groupInfos.get(0).getParticipantInfos().get(0);
+        assertEquals(1, participantInfo.getId());
+        assertTrue(participantInfo.isVoted());
+        assertNull(participantInfo.getScore());
+    }
+
+    @Test
+    void testCachedGroupInfosJson() throws Exception {
+        var author = mockUser(1);
+        var viewer = mockUser(2);
+        var roomState = mockRoomState(author, true, objectMapper);
+
+        var authorResponse = new GetRoomResponse(author, roomState);
+        var viewerResponse = new GetRoomResponse(viewer, roomState);
+
+        assertNotNull(authorResponse.getRoomInfo().getGroupInfosJson());
+        assertSame(authorResponse.getRoomInfo().getGroupInfosJson(), viewerResponse.getRoomInfo().getGroupInfosJson());
+
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(authorResponse));
+        var roomInfo = json.get("roomInfo");
+        assertEquals(42, roomInfo.get("id").asLong());
+        assertEquals(7, roomInfo.get("version").asLong());
+        assertEquals("1", roomInfo.get("score").asText());
+        assertTrue(roomInfo.get("author").asBoolean());
+
+        var groupInfos = roomInfo.get("groupInfos");
+        assertEquals(2, groupInfos.size());
+        assertEquals("DEV", groupInfos.get(0).get("name").asText());
+        assertEquals(2, groupInfos.get(0).get("participantInfos").size());
+        assertEquals("QA", groupInfos.get(1).get("name").asText());
+
+        var participantInfo = groupInfos.get(0).get("participantInfos").get(0);
+        assertEquals(1, participantInfo.get("id").asLong());
+        assertTrue(participantInfo.get("voted").asBoolean());
+        assertTrue(participantInfo.get("score").isNull());
+
+        // same JSON as plain bean serialization of room info without cached groups
+        var plainRoomInfo = new GetRoomResponse(author, mockRoomState(author, true, null)).getRoomInfo();
+        assertEquals(objectMapper.valueToTree(plainRoomInfo), roomInfo);
+        assertEquals(objectMapper.valueToTree(roomState.getGroupInfos()), groupInfos);
+        assertEquals(authorResponse.getResultCode(), json.get("resultCode").asText());
+        assertEquals(2, json.size());
+    }
+
+    @Test
+    void testScoresShownAfterVoting() throws Exception {
+        var author = mockUser(1);
+        var roomState = mockRoomState(author, false, objectMapper);
+
+        var response = new GetRoomResponse(author, roomState);
+
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+        var participantInfo = json.get("roomInfo").get("groupInfos").get(0).get("participantInfos").get(0);
+        assertEquals("1", participantInfo.get("score").asText());
+    }
+
+    @Test
+    void testNotParticipant() {
+        var author = mockUser(1);
+        var roomState = mockRoomState(author, true, null);
+
+        var user = mockUser(4);
+        assertThrows(NotAllowedException.class, () -> new GetRoomResponse(user, roomState));
+    }
+
+    private static RoomState mockRoomState(User author, boolean voting, ObjectMapper objectMapper) {
+        var room = new Room();
+        room.setId(42);
+        room.setAuthor(author);
+        room.setVoting(voting);
+        room.setVersion(7);
+
+        var participants = List.of(
+                new ParticipantDto(1, "last first", 1, "DEV", "1"),
+                new ParticipantDto(2, "last second", 1, "DEV", null),
+                new ParticipantDto(3, "last third", 2, "QA", "3")
+        );
+        return new RoomState(room, null, participants, System.currentTimeMillis(), objectMapper);
+    }
+
+    private static User mockUser(long id) {
+        var user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -1,26 +1,34 @@
 package com.github.sibmaks.sp.controller;
 
 import com.github.sibmaks.sp.api.constant.ApiResultCode;
+import com.github.sibmaks.sp.api.constant.CommonConstant;
 import com.github.sibmaks.sp.api.request.*;
 import com.github.sibmaks.sp.api.response.CreateRoomResponse;
 import com.github.sibmaks.sp.api.response.GetRoomResponse;
 import com.github.sibmaks.sp.api.response.JoinRoomResponse;
+import com.github.sibmaks.sp.api.response.StandardResponse;
 import com.github.sibmaks.sp.conf.DataSourceStub;
-import com.github.sibmaks.sp.domain.*;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
 import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
 import com.github.sibmaks.sp.exception.ValidationErrorException;
+import com.github.sibmaks.sp.service.RoomEventService;
 import com.github.sibmaks.sp.service.RoomService;
-import com.github.sibmaks.sp.service.SessionService;
-import com.github.sibmaks.sp.service.UserService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +36,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -42,9 +51,7 @@ class RoomControllerTest {
     @MockBean
     private RoomService roomService;
     @MockBean
-    private UserService userService;
-    @MockBean
-    private SessionService sessionService;
+    private RoomEventService roomEventService;
     @Autowired
     private RoomController controller;
 
@@ -57,7 +64,6 @@ class RoomControllerTest {
         var roleId = 1;
         var roomId = 123;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
@@ -67,29 +73,13 @@ class RoomControllerTest {
                 .thenReturn(room);
 
         var rq = new CreateRoomRequest(name, null, roles, days, roleId);
-        var standardResponse = controller.createRoom(sessionId, rq);
+        var standardResponse = controller.createRoom(user, rq);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         var createRoomResponse = assertInstanceOf(CreateRoomResponse.class, standardResponse);
         assertEquals(roomId, createRoomResponse.getRoomId());
     }
 
-    @Test
-    @DisplayName("Unauthorized create room without secret")
-    void testCreateRoomWithoutSecret_unauthorized() {
-        var name = UUID.randomUUID().toString();
-        var roles = List.of(1);
-        var days = 5;
-        var roleId = 1;
-
-        var sessionId = UUID.randomUUID().toString();
-        when(sessionService.getSession(sessionId))
-                .thenThrow(new NotFoundException());
-
-        var request = new CreateRoomRequest(name, null, roles, days, roleId);
-        assertThrows(UnauthorizedException.class, () -> controller.createRoom(sessionId, request));
-    }
-
     @Test
     @DisplayName("Successfully create room with secret")
     void testCreateRoomWithSecret() {
@@ -100,7 +90,6 @@ class RoomControllerTest {
         var roleId = 1;
         var roomId = 123;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
@@ -109,7 +98,7 @@ class RoomControllerTest {
         when(roomService.createRoom(user, name, secret, roles, days, roleId))
                 .thenReturn(room);
 
-        var standardResponse = controller.createRoom(sessionId, new CreateRoomRequest(name, secret, roles, days, roleId));
+        var standardResponse = controller.createRoom(user, new CreateRoomRequest(name, secret, roles, days, roleId));
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         var createRoomResponse = assertInstanceOf(CreateRoomResponse.class, standardResponse);
@@ -125,7 +114,6 @@ class RoomControllerTest {
         var days = 5;
         var roleId = 1;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
@@ -134,7 +122,7 @@ class RoomControllerTest {
                 .thenReturn(room);
 
         var request = new CreateRoomRequest(name, secret, roles, days, roleId);
-        assertThrows(ValidationErrorException.class, () -> controller.createRoom(sessionId, request));
+        assertThrows(ValidationErrorException.class, () -> controller.createRoom(user, request));
     }
 
     @Test
@@ -146,7 +134,6 @@ class RoomControllerTest {
         var days = 5;
         var roleId = 1;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
@@ -155,7 +142,7 @@ class RoomControllerTest {
                 .thenReturn(room);
 
         var request = new CreateRoomRequest(name, secret, roles, days, roleId);
-        assertThrows(ValidationErrorException.class, () -> controller.createRoom(sessionId, request));
+        assertThrows(ValidationErrorException.class, () -> controller.createRoom(user, request));
     }
 
     @Test
@@ -165,7 +152,6 @@ class RoomControllerTest {
         var roomId = 123;
         var roleId = 321;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
@@ -175,7 +161,7 @@ class RoomControllerTest {
                 .thenReturn(room);
 
         var rq = new JoinRoomRequest(roomId, roleId, secretCode);
-        var standardResponse = controller.join(sessionId, rq);
+        var standardResponse = controller.join(user, rq);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         var joinRoomResponse = assertInstanceOf(JoinRoomResponse.class, standardResponse);
@@ -187,14 +173,13 @@ class RoomControllerTest {
     void testLeave() {
         var roomId = 123;
 
-        var sessionId = mockSession(123);
-        mockUser(123);
+        var user = mockUser(123);
 
         var room = new Room();
         room.setId(roomId);
 
         var rq = new LeaveRoomRequest(roomId);
-        var standardResponse = controller.leave(sessionId, rq);
+        var standardResponse = controller.leave(user, rq);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
     }
 
@@ -204,13 +189,12 @@ class RoomControllerTest {
         var roomId = 123;
         String score = "score";
 
-        var sessionId = mockSession(123);
-        mockUser(123);
+        var user = mockUser(123);
 
         var room = new Room();
         room.setId(roomId);
 
-        var standardResponse = controller.vote(sessionId, new VoteRoomRequest(roomId, score));
+        var standardResponse = controller.vote(user, new VoteRoomRequest(roomId, score));
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
     }
 
@@ -220,16 +204,13 @@ class RoomControllerTest {
         var roomId = 123;
         var voting = true;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
         room.setId(roomId);
         room.setAuthor(user);
 
-        var participant = new Participant();
-        participant.setParticipantId(new ParticipantId(user, room));
-        participant.setRole(new Role());
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
 
         when(roomService.setVoting(user, roomId, voting))
                 .thenReturn(room);
@@ -237,7 +218,7 @@ class RoomControllerTest {
                 .thenReturn(Collections.singletonList(participant));
 
         var rq = new SetVotingRoomRequest(roomId, voting);
-        var standardResponse = controller.setVoting(sessionId, rq);
+        var standardResponse = controller.setVoting(user, rq);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         GetRoomResponse getRoomResponse = (GetRoomResponse) standardResponse;
@@ -249,23 +230,23 @@ class RoomControllerTest {
     void testGetRoom() {
         var roomId = 123;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
         var room = new Room();
         room.setId(roomId);
         room.setAuthor(user);
 
-        var participant = new Participant();
-        participant.setParticipantId(new ParticipantId(user, room));
-        participant.setRole(new Role());
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
 
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(room);
-        when(roomService.getParticipants(room))
-                .thenReturn(Collections.singletonList(participant));
+        when(roomService.getRoomState(user, roomId))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        var responseEntity = controller.getRoom(user, new GetRoomRequest(roomId), null);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"123-0\"", responseEntity.getHeaders().getETag());
 
-        var standardResponse = controller.getRoom(sessionId, new GetRoomRequest(roomId));
+        var standardResponse = responseEntity.getBody();
+        assertNotNull(standardResponse);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         var getRoomResponse = assertInstanceOf(GetRoomResponse.class, standardResponse);
@@ -277,7 +258,6 @@ class RoomControllerTest {
     void testGetRoom_notAuthor() {
         var roomId = 123;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
         var userOther = mockUser(124);
 
@@ -285,58 +265,113 @@ class RoomControllerTest {
         room.setId(roomId);
         room.setAuthor(userOther);
 
-        var participantOther = new Participant();
-        participantOther.setParticipantId(new ParticipantId(userOther, room));
-        participantOther.setRole(new Role());
-        participantOther.getRole().setId(1);
+        var participantOther = new ParticipantDto(userOther.getId(), "other", 1, "COMMON", null);
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
 
-        var participant = new Participant();
-        participant.setParticipantId(new ParticipantId(user, room));
-        participant.setRole(new Role());
-        participant.getRole().setId(1);
+        when(roomService.getRoomState(user, roomId))
+                .thenReturn(new RoomState(room, Arrays.asList(participantOther, participant), System.currentTimeMillis()));
 
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(room);
-        when(roomService.getParticipants(room))
-                .thenReturn(Arrays.asList(participantOther, participant));
+        var responseEntity = controller.getRoom(user, new GetRoomRequest(roomId), null);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"123-0\"", responseEntity.getHeaders().getETag());
 
-        var standardResponse = controller.getRoom(sessionId, new GetRoomRequest(roomId));
+        var standardResponse = responseEntity.getBody();
+        assertNotNull(standardResponse);
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
 
         var getRoomResponse = assertInstanceOf(GetRoomResponse.class, standardResponse);
         assertEquals(roomId, getRoomResponse.getRoomInfo().getId());
     }
 
+    @Test
+    @DisplayName("Not modified on get room info with actual version")
+    void testGetRoom_notModified() {
+        var roomId = 123;
+
+        var user = mockUser(123);
+
+        var room = new Room();
+        room.setId(roomId);
+        room.setAuthor(user);
+        room.setVersion(7);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+
+        when(roomService.getRoomState(user, roomId))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        var request = new GetRoomRequest(roomId);
+        var responseEntity = controller.getRoom(user, request, "\"123-7\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"123-7\"", responseEntity.getHeaders().getETag());
+        assertNull(responseEntity.getBody());
+
+        responseEntity = controller.getRoom(user, request, "W/\"123-6\", \"123-7\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+
+        responseEntity = controller.getRoom(user, request, "\"123-6\"");
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"123-7\"", responseEntity.getHeaders().getETag());
+        assertInstanceOf(GetRoomResponse.class, responseEntity.getBody());
+    }
+
     @Test
     @DisplayName("Not found on get room info")
     void testGetRoom_notFound() {
         var roomId = 123;
 
-        var sessionId = mockSession(123);
         var user = mockUser(123);
 
-        when(roomService.getRoom(user, roomId))
+        when(roomService.getRoomState(user, roomId))
                 .thenReturn(null);
 
         var request = new GetRoomRequest(roomId);
-        assertThrows(NotFoundException.class, () -> controller.getRoom(sessionId, request));
+        assertThrows(NotFoundException.class, () -> controller.getRoom(user, request, null));
     }
 
-    private String mockSession(long userId) {
+    @Test
+    @DisplayName("Successfully poll room info")
+    void testPollRoom() {
+        var roomId = 123;
+        var sinceVersion = 5;
+
+        var user = mockUser(123);
+
         var sessionId = UUID.randomUUID().toString();
-        var clientSession = new ClientSession();
-        clientSession.setSessionId(sessionId);
-        clientSession.setUserId(userId);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-        return sessionId;
+
+        var deferredResult = new DeferredResult<StandardResponse>();
+        when(roomEventService.poll(user, sessionId, roomId, sinceVersion))
+                .thenReturn(deferredResult);
+
+        var result = controller.pollRoom(user, sessionId, new PollRoomRequest(roomId, sinceVersion));
+        assertEquals(deferredResult, result);
+    }
+
+    @Test
+    @DisplayName("Successfully subscribe on room events")
+    void testEvents() {
+        var roomId = 123;
+
+        var user = mockUser(123);
+
+        var sessionId = UUID.randomUUID().toString();
+
+        var request = mock(HttpServletRequest.class);
+        when(request.getCookies())
+                .thenReturn(new Cookie[]{
+                        new Cookie(CommonConstant.HEADER_SESSION_ID, sessionId)
+                });
+
+        var emitter = new SseEmitter();
+        when(roomEventService.subscribe(user, sessionId, roomId))
+                .thenReturn(emitter);
+
+        assertEquals(emitter, controller.events(user, roomId, request));
     }
 
     private User mockUser(long userId) {
         var user = new User();
         user.setId(userId);
-        when(userService.getUser(userId))
-                .thenReturn(user);
         return user;
     }
 }
\ No newline at end of file
@@ -4,12 +4,12 @@ import com.github.sibmaks.sp.api.constant.CommonConstant;
 import com.github.sibmaks.sp.api.entity.RoomInfo;
 import com.github.sibmaks.sp.conf.DataSourceStub;
 import com.github.sibmaks.sp.domain.*;
+import com.github.sibmaks.sp.dto.ParticipantDto;
 import com.github.sibmaks.sp.dto.RoomInfoDto;
-import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
+import com.github.sibmaks.sp.dto.RoomPageView;
+import com.github.sibmaks.sp.dto.RoomState;
 import com.github.sibmaks.sp.service.RoomService;
 import com.github.sibmaks.sp.service.SessionService;
-import com.github.sibmaks.sp.service.UserService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
@@ -39,8 +39,6 @@ import static org.mockito.Mockito.*;
 @ContextConfiguration
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class UIControllerTest {
-    @MockBean
-    private UserService userService;
     @MockBean
     private RoomService roomService;
     @MockBean
@@ -156,26 +154,13 @@ class UIControllerTest {
 
     @Test
     void testShowAccountForm() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-
         var user = new User();
         user.setFirstName("first");
         user.setLastName("last");
 
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
-
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.showAccountForm(request, model);
+        var response = uiController.showAccountForm(user, model);
         assertEquals("account", response);
 
         verify(model)
@@ -184,36 +169,10 @@ class UIControllerTest {
                 .addAttribute("lastName", user.getLastName());
     }
 
-    @Test
-    void testShowAccountForm_unauthorized() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-
-        var user = new User();
-        user.setFirstName("first");
-        user.setLastName("last");
-
-        when(sessionService.getSession(sessionId))
-                .thenThrow(new NotFoundException());
-
-        var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
-
-        assertThrows(UnauthorizedException.class, () -> uiController.showAccountForm(request, model));
-    }
-
     @Test
     void testGetRooms() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
         var user = new User();
-        user.setId(clientSession.getUserId());
+        user.setId(123);
 
         var participants = 42L;
         var room = new Room();
@@ -221,21 +180,12 @@ class UIControllerTest {
         room.setVoting(true);
         room.setName("test name");
 
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-        when(userService.getUser(user.getId()))
-                .thenReturn(user);
-        when(roomService.getRooms(clientSession.getUserId()))
-                .thenReturn(Collections.singletonList(room));
-        when(roomService.getParticipantCount(room))
-                .thenReturn(participants);
+        when(roomService.getRoomInfos(user.getId()))
+                .thenReturn(Collections.singletonList(new RoomInfoDto(room.getId(), room.getName(), room.isVoting(), participants)));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRooms(request, model);
+        var response = uiController.getRooms(user, model);
         assertEquals("rooms", response);
 
         ArgumentCaptor<List<RoomInfoDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -294,51 +244,31 @@ class UIControllerTest {
     @Test
     void testGetRoom_wrongRoomId() {
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        var response = uiController.getRoom(request, "string", model);
+        var response = uiController.getRoom(new User(), "string", model);
         assertEquals("redirect:/", response);
     }
 
     @Test
     void testGetRoom_userInRoom_voteInProgress() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var room = new Room();
         room.setId(10);
         room.setVoting(true);
         room.setName("test name");
         room.setAuthor(user);
-        when(roomService.getRoom(user, room.getId()))
-                .thenReturn(room);
 
-        var participant = new Participant();
-        participant.setScore("score");
-        participant.setParticipantId(new ParticipantId(user, room));
         var role = new Role();
         role.setName("role-name");
-        participant.setRole(role);
-        when(roomService.getParticipants(room))
-                .thenReturn(Collections.singletonList(participant));
-
+        var participant = new ParticipantDto(user.getId(), "last first", role.getId(), role.getName(), "score");
         var secretCode = UUID.randomUUID().toString();
-        when(roomService.getSecret(user, room))
-                .thenReturn(secretCode);
+        var state = new RoomState(room, secretCode, Collections.singletonList(participant), System.currentTimeMillis());
+        when(roomService.getRoomPage(user, room.getId()))
+                .thenReturn(new RoomPageView(state, true, Collections.emptyList(), true, secretCode));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(room.getId()), model);
+        var response = uiController.getRoom(user, String.valueOf(room.getId()), model);
         assertEquals("room", response);
 
         var captor = ArgumentCaptor.forClass(RoomInfo.class);
@@ -358,50 +288,31 @@ class UIControllerTest {
 
         var participantInfo = groupInfo.getParticipantInfos().getFirst();
         assertEquals(user.getId(), participantInfo.getId());
-        assertEquals(user.getFirstName() + " " + user.getLastName(), participantInfo.getName());
+        assertEquals(participant.getName(), participantInfo.getName());
         assertNull(participantInfo.getScore());
     }
 
     @Test
     void testGetRoom_userInRoom_noActiveVotes() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var room = new Room();
         room.setId(10);
         room.setVoting(false);
         room.setName("test name");
         room.setAuthor(user);
-        when(roomService.getRoom(user, room.getId()))
-                .thenReturn(room);
 
-        var participant = new Participant();
-        participant.setScore("score");
-        participant.setParticipantId(new ParticipantId(user, room));
         var role = new Role();
         role.setName("role-name");
-        participant.setRole(role);
-        when(roomService.getParticipants(room))
-                .thenReturn(Collections.singletonList(participant));
-
+        var participant = new ParticipantDto(user.getId(), "last first", role.getId(), role.getName(), "score");
         var secretCode = UUID.randomUUID().toString();
-        when(roomService.getSecret(user, room))
-                .thenReturn(secretCode);
+        var state = new RoomState(room, secretCode, Collections.singletonList(participant), System.currentTimeMillis());
+        when(roomService.getRoomPage(user, room.getId()))
+                .thenReturn(new RoomPageView(state, true, Collections.emptyList(), true, secretCode));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(room.getId()), model);
+        var response = uiController.getRoom(user, String.valueOf(room.getId()), model);
         assertEquals("room", response);
 
         var captor = ArgumentCaptor.forClass(RoomInfo.class);
@@ -421,90 +332,46 @@ class UIControllerTest {
 
         var participantInfo = groupInfo.getParticipantInfos().get(0);
         assertEquals(user.getId(), participantInfo.getId());
-        assertEquals(user.getFirstName() + " " + user.getLastName(), participantInfo.getName());
+        assertEquals(participant.getName(), participantInfo.getName());
         assertEquals(participant.getScore(), participantInfo.getScore());
     }
 
     @Test
-    void testGetRoom_userNotInRoom_rolesNull() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
+    void testGetRoom_roomNotExists() {
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var roomId = 42;
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(null);
-        when(roomService.getRoles(roomId))
+        when(roomService.getRoomPage(user, roomId))
                 .thenReturn(null);
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(roomId), model);
+        var response = uiController.getRoom(user, String.valueOf(roomId), model);
         assertEquals("redirect:/", response);
     }
 
     @Test
     void testGetRoom_userNotInRoom_rolesEmpty() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var roomId = 42;
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(null);
-        when(roomService.getRoles(roomId))
-                .thenReturn(Collections.emptyList());
+        when(roomService.getRoomPage(user, roomId))
+                .thenReturn(new RoomPageView(null, false, Collections.emptyList(), false, null));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(roomId), model);
+        var response = uiController.getRoom(user, String.valueOf(roomId), model);
         assertEquals("redirect:/", response);
     }
 
     @Test
     void testGetRoom_userNotInRoom_autoJoin() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var roomId = 42;
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(null);
         var role = new Role();
         role.setId(43);
         role.setName("test-name");
-        when(roomService.getRoles(roomId))
-                .thenReturn(Collections.singletonList(role));
-        when(roomService.hasSecret(roomId))
-                .thenReturn(false);
-
         var room = new Room();
         room.setId(roomId);
         room.setVoting(false);
@@ -514,24 +381,23 @@ class UIControllerTest {
                 .thenReturn(room);
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
-
-        var participant = new Participant();
-        participant.setScore("score");
-        participant.setParticipantId(new ParticipantId(user, room));
-        participant.setRole(role);
-        when(roomService.getParticipants(room))
-                .thenReturn(Collections.singletonList(participant));
 
+        var participant = new ParticipantDto(user.getId(), "last first", role.getId(), role.getName(), "score");
         var secretCode = UUID.randomUUID().toString();
-        when(roomService.getSecret(user, room))
-                .thenReturn(secretCode);
-
-        var response = uiController.getRoom(request, String.valueOf(roomId), model);
+        when(roomService.getRoomPage(user, roomId))
+                .thenReturn(
+                        new RoomPageView(new RoomState(room, Collections.emptyList(), System.currentTimeMillis()),
+                                false, Collections.singletonList(role), false, null),
+                        new RoomPageView(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()),
+                                true, Collections.emptyList(), false, secretCode)
+                );
+
+        var response = uiController.getRoom(user, String.valueOf(roomId), model);
         assertEquals("room", response);
 
+        verify(roomService)
+                .joinRoom(user, roomId, role.getId(), null);
+
         var captor = ArgumentCaptor.forClass(RoomInfo.class);
         verify(model)
                 .addAttribute(eq("roomInfo"), captor.capture());
@@ -549,40 +415,24 @@ class UIControllerTest {
 
         var participantInfo = groupInfo.getParticipantInfos().get(0);
         assertEquals(user.getId(), participantInfo.getId());
-        assertEquals(user.getFirstName() + " " + user.getLastName(), participantInfo.getName());
+        assertEquals(participant.getName(), participantInfo.getName());
         assertEquals(participant.getScore(), participantInfo.getScore());
     }
 
     @Test
     void testGetRoom_userNotInRoom_joinPageWithSecret() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var roomId = 42L;
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(null);
         var role = new Role();
         role.setId(43);
         role.setName("test-name");
-        when(roomService.getRoles(roomId))
-                .thenReturn(Collections.singletonList(role));
-        when(roomService.hasSecret(roomId))
-                .thenReturn(true);
+        when(roomService.getRoomPage(user, roomId))
+                .thenReturn(new RoomPageView(null, false, Collections.singletonList(role), true, null));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(roomId), model);
+        var response = uiController.getRoom(user, String.valueOf(roomId), model);
         assertEquals("join", response);
 
         verify(model)
@@ -595,34 +445,18 @@ class UIControllerTest {
 
     @Test
     void testGetRoom_userNotInRoom_joinPageWithRoles() {
-        var sessionId = UUID.randomUUID().toString();
-
-        var clientSession = new ClientSession();
-        clientSession.setUserId(123);
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-
         var user = new User();
-        when(userService.getUser(clientSession.getUserId()))
-                .thenReturn(user);
 
         var roomId = 42L;
-        when(roomService.getRoom(user, roomId))
-                .thenReturn(null);
         var role = new Role();
         role.setId(43);
         role.setName("test-name");
-        when(roomService.getRoles(roomId))
-                .thenReturn(Arrays.asList(role, role));
-        when(roomService.hasSecret(roomId))
-                .thenReturn(false);
+        when(roomService.getRoomPage(user, roomId))
+                .thenReturn(new RoomPageView(null, false, Arrays.asList(role, role), false, null));
 
         var model = mock(Model.class);
-        var request = mock(HttpServletRequest.class);
-        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
-                .thenReturn(sessionId);
 
-        var response = uiController.getRoom(request, String.valueOf(roomId), model);
+        var response = uiController.getRoom(user, String.valueOf(roomId), model);
         assertEquals("join", response);
 
         verify(model)
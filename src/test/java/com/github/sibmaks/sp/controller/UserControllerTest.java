@@ -7,10 +7,7 @@ import com.github.sibmaks.sp.api.request.LoginRequest;
 import com.github.sibmaks.sp.api.request.RegistrationUserRequest;
 import com.github.sibmaks.sp.api.request.UpdateUserRequest;
 import com.github.sibmaks.sp.conf.DataSourceStub;
-import com.github.sibmaks.sp.domain.ClientSession;
 import com.github.sibmaks.sp.domain.User;
-import com.github.sibmaks.sp.exception.NotFoundException;
-import com.github.sibmaks.sp.exception.UnauthorizedException;
 import com.github.sibmaks.sp.service.SessionService;
 import com.github.sibmaks.sp.service.UserService;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,7 +23,6 @@ import org.springframework.test.context.ContextConfiguration;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 /**
@@ -105,63 +101,32 @@ class UserControllerTest {
         var userId = 1234L;
         var firstName = "firstName";
         var lastName = "lastName";
-        var sessionId = UUID.randomUUID().toString();
 
         var user = new User();
         user.setId(userId);
 
-        var clientSession = ClientSession.builder()
-                .userId(userId)
-                .sessionId(sessionId)
-                .build();
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-        when(userService.getUser(userId))
-                .thenReturn(user);
-
         when(userService.update(user, firstName, lastName))
                 .thenReturn(true);
 
         var request = new UpdateUserRequest(firstName, lastName);
-        var standardResponse = controller.update(sessionId, request);
+        var standardResponse = controller.update(user, request);
 
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
         verify(userService)
                 .update(user, firstName, lastName);
     }
 
-    @Test
-    @DisplayName("User profile not changed when client unauthorized")
-    void testUserProfileUpdate_unauthorized() {
-        var firstName = "firstName";
-        var lastName = "lastName";
-        var sessionId = UUID.randomUUID().toString();
-
-        when(sessionService.getSession(sessionId))
-                .thenThrow(new NotFoundException());
-
-        var request = new UpdateUserRequest(firstName, lastName);
-        assertThrows(UnauthorizedException.class, () -> controller.update(sessionId, request));
-    }
-
     @Test
     @DisplayName("User password successfully changed")
     void testUserProfileChanged() {
         var userId = 1234L;
         var password = "password";
-        var sessionId = UUID.randomUUID().toString();
 
         var user = new User();
         user.setId(userId);
 
-        var clientSession = ClientSession.builder().userId(userId).sessionId(sessionId).build();
-        when(sessionService.getSession(sessionId))
-                .thenReturn(clientSession);
-        when(userService.getUser(userId))
-                .thenReturn(user);
-
         var request = new ChangePasswordRequest(password);
-        var standardResponse = controller.changePassword(sessionId, request);
+        var standardResponse = controller.changePassword(user, request);
 
         assertEquals(ApiResultCode.OK.code, standardResponse.getResultCode());
         verify(userService)
@@ -0,0 +1,49 @@
+package com.github.sibmaks.sp.fixture;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Flight recorder events collector for tests
+ *
+ * @author sibmaks
+ * @since 0.0.5
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Record events emitted while action is executed, event threshold is ignored
+     *
+     * @param eventName event name
+     * @param action action to execute
+     * @return recorded events, including events emitted by other threads
+     * @throws IOException if recording can't be read
+     */
+    public static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        try (var recording = new Recording()) {
+            recording.enable(eventName)
+                    .withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            var file = Files.createTempFile("events", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file).stream()
+                        .filter(it -> eventName.equals(it.getEventType().getName()))
+                        .toList();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.api.constant.CommonConstant;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.UnauthorizedException;
+import com.github.sibmaks.sp.service.SessionService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class CurrentUserArgumentResolverTest {
+    private SessionService sessionService;
+    private CurrentUserArgumentResolver resolver;
+
+    private MethodParameter headerParameter;
+    private MethodParameter cookieParameter;
+
+    @BeforeEach
+    public void setUp() throws NoSuchMethodException {
+        sessionService = mock(SessionService.class);
+        resolver = new CurrentUserArgumentResolver(sessionService);
+
+        class StubController {
+            public void header(@CurrentUser User user) {
+
+            }
+
+            public void cookie(@CurrentUser(cookie = true) User user) {
+
+            }
+        }
+
+        headerParameter = new MethodParameter(StubController.class.getDeclaredMethod("header", User.class), 0);
+        cookieParameter = new MethodParameter(StubController.class.getDeclaredMethod("cookie", User.class), 0);
+    }
+
+    @Test
+    void testSupportsParameter() throws NoSuchMethodException {
+        class StubController {
+            public void method(@CurrentUser User user, User other, @CurrentUser String value) {
+
+            }
+        }
+
+        var method = StubController.class.getDeclaredMethod("method", User.class, User.class, String.class);
+        assertTrue(resolver.supportsParameter(new MethodParameter(method, 0)));
+        assertFalse(resolver.supportsParameter(new MethodParameter(method, 1)));
+        assertFalse(resolver.supportsParameter(new MethodParameter(method, 2)));
+    }
+
+    @Test
+    void testResolveArgument_header() {
+        var sessionId = UUID.randomUUID().toString();
+        var user = new User();
+
+        var request = mock(HttpServletRequest.class);
+        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
+                .thenReturn(sessionId);
+        when(sessionService.getSessionUser(sessionId))
+                .thenReturn(user);
+
+        assertEquals(user, resolver.resolveArgument(headerParameter, null, new ServletWebRequest(request), null));
+        assertEquals(user, resolver.resolveArgument(cookieParameter, null, new ServletWebRequest(request), null));
+    }
+
+    @Test
+    void testResolveArgument_cookie() {
+        var sessionId = UUID.randomUUID().toString();
+        var user = new User();
+
+        var request = mock(HttpServletRequest.class);
+        when(request.getCookies())
+                .thenReturn(new Cookie[]{
+                        new Cookie("test", "val"),
+                        new Cookie(CommonConstant.HEADER_SESSION_ID, sessionId)
+                });
+        when(sessionService.getSessionUser(sessionId))
+                .thenReturn(user);
+
+        assertEquals(user, resolver.resolveArgument(cookieParameter, null, new ServletWebRequest(request), null));
+    }
+
+    @Test
+    void testResolveArgument_cookieNotAllowed() {
+        var sessionId = UUID.randomUUID().toString();
+
+        var request = mock(HttpServletRequest.class);
+        when(request.getCookies())
+                .thenReturn(new Cookie[]{
+                        new Cookie(CommonConstant.HEADER_SESSION_ID, sessionId)
+                });
+        when(sessionService.getSessionUser(sessionId))
+                .thenReturn(new User());
+        when(sessionService.getSessionUser(null))
+                .thenThrow(new NotFoundException());
+
+        var webRequest = new ServletWebRequest(request);
+        assertThrows(UnauthorizedException.class, () -> resolver.resolveArgument(headerParameter, null, webRequest, null));
+    }
+
+    @Test
+    void testResolveArgument_unauthorized() {
+        var sessionId = UUID.randomUUID().toString();
+
+        var request = mock(HttpServletRequest.class);
+        when(request.getHeader(CommonConstant.HEADER_SESSION_ID))
+                .thenReturn(sessionId);
+        when(sessionService.getSessionUser(sessionId))
+                .thenThrow(new NotFoundException());
+
+        var webRequest = new ServletWebRequest(request);
+        assertThrows(UnauthorizedException.class, () -> resolver.resolveArgument(headerParameter, null, webRequest, null));
+    }
+
+    @Test
+    void testResolveArgument_noSession() {
+        var request = mock(HttpServletRequest.class);
+        when(sessionService.getSessionUser(null))
+                .thenThrow(new NotFoundException());
+
+        var webRequest = new ServletWebRequest(request);
+        assertThrows(UnauthorizedException.class, () -> resolver.resolveArgument(headerParameter, null, webRequest, null));
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.api.constant.CommonConstant;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.service.RoomService;
+import com.github.sibmaks.sp.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class RoomHandshakeInterceptorTest {
+    private SessionService sessionService;
+    private RoomService roomService;
+    private RoomHandshakeInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        sessionService = mock(SessionService.class);
+        roomService = mock(RoomService.class);
+        interceptor = new RoomHandshakeInterceptor(sessionService, roomService);
+    }
+
+    @Test
+    void testBeforeHandshake_noRoomId() {
+        var httpResponse = new MockHttpServletResponse();
+        var attributes = new HashMap<String, Object>();
+
+        assertFalse(interceptor.beforeHandshake(new ServletServerHttpRequest(new MockHttpServletRequest()),
+                new ServletServerHttpResponse(httpResponse), mock(WebSocketHandler.class), attributes));
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), httpResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    void testBeforeHandshake_unauthorized() {
+        var sessionId = UUID.randomUUID().toString();
+        var httpRequest = mockRequest(sessionId, 43);
+        var httpResponse = new MockHttpServletResponse();
+        var attributes = new HashMap<String, Object>();
+
+        when(sessionService.getSessionUser(sessionId))
+                .thenThrow(new NotFoundException());
+
+        assertFalse(interceptor.beforeHandshake(new ServletServerHttpRequest(httpRequest),
+                new ServletServerHttpResponse(httpResponse), mock(WebSocketHandler.class), attributes));
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), httpResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    void testBeforeHandshake_notParticipant() {
+        var sessionId = UUID.randomUUID().toString();
+        var httpRequest = mockRequest(sessionId, 43);
+        var httpResponse = new MockHttpServletResponse();
+        var attributes = new HashMap<String, Object>();
+        var user = new User();
+
+        when(sessionService.getSessionUser(sessionId))
+                .thenReturn(user);
+        when(roomService.getRoomState(user, 43))
+                .thenReturn(null);
+
+        assertFalse(interceptor.beforeHandshake(new ServletServerHttpRequest(httpRequest),
+                new ServletServerHttpResponse(httpResponse), mock(WebSocketHandler.class), attributes));
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), httpResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    void testBeforeHandshake() {
+        var sessionId = UUID.randomUUID().toString();
+        var httpRequest = mockRequest(sessionId, 43);
+        var attributes = new HashMap<String, Object>();
+        var user = new User();
+
+        when(sessionService.getSessionUser(sessionId))
+                .thenReturn(user);
+        when(roomService.getRoomState(user, 43))
+                .thenReturn(new RoomState(new Room(), Collections.emptyList(), System.currentTimeMillis()));
+
+        assertTrue(interceptor.beforeHandshake(new ServletServerHttpRequest(httpRequest),
+                new ServletServerHttpResponse(new MockHttpServletResponse()), mock(WebSocketHandler.class), attributes));
+
+        assertEquals(sessionId, attributes.get(RoomWebSocketHandler.ATTRIBUTE_SESSION_ID));
+        assertEquals(43L, attributes.get(RoomWebSocketHandler.ATTRIBUTE_ROOM_ID));
+    }
+
+    private static MockHttpServletRequest mockRequest(String sessionId, long roomId) {
+        var httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader(CommonConstant.HEADER_SESSION_ID, sessionId);
+        httpRequest.addParameter(RoomHandshakeInterceptor.PARAMETER_ROOM_ID, String.valueOf(roomId));
+        return httpRequest;
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.sibmaks.sp.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sibmaks.sp.api.constant.ApiResultCode;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.exception.NotAllowedException;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.service.RoomService;
+import com.github.sibmaks.sp.service.RoomStateEngine;
+import com.github.sibmaks.sp.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class RoomWebSocketHandlerTest {
+    private static final String SESSION_ID = "session-id";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RoomService roomService;
+    private RoomStateEngine roomStateEngine;
+    private SessionService sessionService;
+    private RoomWebSocketHandler handler;
+    private User user;
+    private Room room;
+
+    @BeforeEach
+    public void setUp() {
+        roomService = mock(RoomService.class);
+        roomStateEngine = mock(RoomStateEngine.class);
+        sessionService = mock(SessionService.class);
+        handler = new RoomWebSocketHandler(roomService, roomStateEngine, sessionService, objectMapper);
+
+        user = new User();
+        user.setId(42);
+        when(sessionService.getSessionUser(SESSION_ID))
+                .thenReturn(user);
+
+        room = new Room();
+        room.setId(43);
+        room.setAuthor(user);
+        room.setVoting(true);
+        room.setVersion(5);
+    }
+
+    @Test
+    void testAfterConnectionEstablished() throws IOException {
+        mockRoomState(room, "1");
+        var session = mockSession("1");
+
+        handler.afterConnectionEstablished(session);
+
+        var delta = captureDelta(session);
+        assertEquals("room", delta.get("type").asText());
+        assertEquals(5, delta.get("version").asLong());
+        assertEquals(room.getId(), delta.get("roomInfo").get("id").asLong());
+    }
+
+    @Test
+    void testAfterConnectionEstablished_roomNotExists() throws IOException {
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(null);
+        var session = mockSession("1");
+
+        handler.afterConnectionEstablished(session);
+
+        verify(session).close(CloseStatus.NORMAL);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testVote() throws IOException {
+        var session = mockSession("1");
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"vote\",\"score\":\"5\"}"));
+
+        verify(roomService).vote(user, room.getId(), "5");
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testVote_loggedOut() throws IOException {
+        var session = mockSession("1");
+        when(sessionService.getSessionUser(SESSION_ID))
+                .thenThrow(new NotFoundException());
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"vote\",\"score\":\"5\"}"));
+
+        verify(roomService, never()).vote(any(), anyLong(), any());
+        verify(session).close(CloseStatus.POLICY_VIOLATION);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testVote_wrongScore() throws IOException {
+        var session = mockSession("1");
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"vote\",\"score\":\"1234\"}"));
+
+        verify(roomService, never()).vote(any(), anyLong(), any());
+        var delta = captureDelta(session);
+        assertEquals("error", delta.get("type").asText());
+        assertEquals(ApiResultCode.VALIDATION_ERROR.code, delta.get("resultCode").asText());
+    }
+
+    @Test
+    void testSetVoting_notAllowed() throws IOException {
+        var session = mockSession("1");
+        when(roomService.setVoting(user, room.getId(), false))
+                .thenThrow(new NotAllowedException());
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"setVoting\",\"voting\":false}"));
+
+        var delta = captureDelta(session);
+        assertEquals("error", delta.get("type").asText());
+        assertEquals(ApiResultCode.NOT_ALLOWED.code, delta.get("resultCode").asText());
+    }
+
+    @Test
+    void testOnRoomChanged_voted() throws IOException {
+        mockRoomState(room, "1");
+        var session = mockSession("1");
+        handler.afterConnectionEstablished(session);
+        clearInvocations(session);
+
+        handler.onRoomChanged(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.VOTED, user.getId()));
+
+        var delta = captureDelta(session);
+        assertEquals("voted", delta.get("type").asText());
+        assertEquals(user.getId(), delta.get("userId").asLong());
+        assertTrue(delta.get("voted").asBoolean());
+        assertFalse(delta.has("roomInfo"));
+        assertFalse(delta.has("scores"));
+    }
+
+    @Test
+    void testOnRoomChanged_revealed() throws IOException {
+        room.setVoting(false);
+        mockRoomState(room, "8");
+        var session = mockSession("1");
+        handler.afterConnectionEstablished(session);
+        clearInvocations(session);
+
+        handler.onRoomChanged(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.VOTING_FINISHED, user.getId()));
+
+        var delta = captureDelta(session);
+        assertEquals("revealed", delta.get("type").asText());
+        assertEquals("8", delta.get("scores").get(String.valueOf(user.getId())).asText());
+    }
+
+    @Test
+    void testOnRoomChanged_revealed_notParticipant() throws IOException {
+        mockRoomState(room, "8");
+        var session = mockSession("1");
+        handler.afterConnectionEstablished(session);
+        clearInvocations(session);
+
+        var changedRoom = new Room();
+        changedRoom.setId(room.getId());
+        changedRoom.setAuthor(user);
+        changedRoom.setVoting(false);
+        changedRoom.setVersion(6);
+        var participant = new ParticipantDto(44, "last other", 1, "COMMON", "3");
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(changedRoom, List.of(participant), System.currentTimeMillis()));
+
+        handler.onRoomChanged(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.VOTING_FINISHED, 44));
+
+        verify(session).close(CloseStatus.NORMAL);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testOnRoomChanged_loggedOut() throws IOException {
+        mockRoomState(room, "8");
+        var session = mockSession("1");
+        handler.afterConnectionEstablished(session);
+        clearInvocations(session);
+        when(sessionService.getSessionUser(SESSION_ID))
+                .thenThrow(new NotFoundException());
+
+        handler.onRoomChanged(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.VOTED, user.getId()));
+
+        verify(session).close(CloseStatus.POLICY_VIOLATION);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testOnRoomChanged_closed() throws IOException {
+        mockRoomState(room, null);
+        var session = mockSession("1");
+        handler.afterConnectionEstablished(session);
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        clearInvocations(session, roomStateEngine);
+
+        handler.onRoomChanged(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.JOINED, 44));
+
+        verify(roomStateEngine, never()).get(room.getId());
+        verify(session, never()).sendMessage(any());
+    }
+
+    private void mockRoomState(Room room, String score) {
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", score);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, List.of(participant), System.currentTimeMillis()));
+    }
+
+    private WebSocketSession mockSession(String id) {
+        var session = mock(WebSocketSession.class);
+        var attributes = new HashMap<String, Object>();
+        attributes.put(RoomWebSocketHandler.ATTRIBUTE_SESSION_ID, SESSION_ID);
+        attributes.put(RoomWebSocketHandler.ATTRIBUTE_ROOM_ID, room.getId());
+        when(session.getId())
+                .thenReturn(id);
+        when(session.getAttributes())
+                .thenReturn(attributes);
+        when(session.isOpen())
+                .thenReturn(true);
+        return session;
+    }
+
+    private JsonNode captureDelta(WebSocketSession session) throws IOException {
+        var captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(captor.capture());
+        return objectMapper.readTree(captor.getValue().getPayload());
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.conf.SqlStatsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class SqlStatsInterceptorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatsProperties sqlStatsProperties;
+    private SqlStatsInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatsProperties = new SqlStatsProperties(true, 10, Duration.ofMillis(200));
+        interceptor = new SqlStatsInterceptor(sqlStatsProperties, meterRegistry);
+        handler = new HandlerMethod(this, SqlStatsInterceptorTest.class.getDeclaredMethod("getRoom"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStats.stop();
+    }
+
+    @Test
+    void testAfterCompletion() {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        SqlStats.addStatement(TimeUnit.MILLISECONDS.toNanos(2));
+        SqlStats.addTime(TimeUnit.MILLISECONDS.toNanos(1));
+        SqlStats.addStatement(TimeUnit.MILLISECONDS.toNanos(3));
+        interceptor.afterCompletion(request, response, handler, null);
+
+        var statements = meterRegistry.get("app.sql.statements")
+                .tag("handler", "SqlStatsInterceptorTest.getRoom")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        var time = meterRegistry.get("app.sql.time")
+                .tag("handler", "SqlStatsInterceptorTest.getRoom")
+                .timer();
+        assertEquals(6, time.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertNull(SqlStats.stop());
+    }
+
+    @Test
+    void testAsyncDispatch() {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        SqlStats.addStatement(1);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, handler));
+        SqlStats.addStatement(1);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        var statements = meterRegistry.get("app.sql.statements").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+    }
+
+    @Test
+    void testDisabled() {
+        sqlStatsProperties.setEnabled(false);
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        SqlStats.addStatement(1);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertNull(meterRegistry.find("app.sql.statements").summary());
+    }
+
+    @Test
+    void testNotHandlerMethod() {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+        var resourceHandler = new Object();
+
+        assertTrue(interceptor.preHandle(request, response, resourceHandler));
+        interceptor.afterCompletion(request, response, resourceHandler, null);
+
+        assertNull(meterRegistry.find("app.sql.statements").summary());
+    }
+
+    private void getRoom() {
+        // handler method stub
+    }
+}
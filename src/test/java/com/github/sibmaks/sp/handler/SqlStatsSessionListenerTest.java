@@ -0,0 +1,67 @@
+package com.github.sibmaks.sp.handler;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import com.github.sibmaks.sp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SqlStatsSessionListenerTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Test
+    void testStatementsCounted() {
+        var user = new User();
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setLogin(UUID.randomUUID().toString());
+        user.setPassword("password");
+        user = userRepository.save(user);
+        var room = roomRepository.save(Room.builder()
+                .name("room")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+
+        SqlStats.start();
+        assertTrue(roomRepository.findWithSecretById(room.getId()).isPresent());
+        roomRepository.incrementVersion(room.getId());
+        var snapshot = SqlStats.stop();
+
+        assertNotNull(snapshot);
+        assertEquals(2, snapshot.statements());
+        assertTrue(snapshot.nanos() > 0);
+    }
+
+    @Test
+    void testNotStarted() {
+        roomRepository.countActive();
+
+        assertNull(SqlStats.stop());
+    }
+}
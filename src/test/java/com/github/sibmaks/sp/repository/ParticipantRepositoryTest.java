@@ -0,0 +1,135 @@
+package com.github.sibmaks.sp.repository;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ParticipantRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RoomRoleRepository roomRoleRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testFindAllDtoByRoomId_singleStatement() {
+        var roles = roleRepository.findAllByOrderById();
+        var author = createUser();
+        var room = createRoom(author, false);
+        for (var role : roles) {
+            roomRoleRepository.save(new RoomRole(new RoomRoleId(room, role)));
+        }
+        var participantsCount = 50;
+        for (int i = 0; i < participantsCount; i++) {
+            var user = i == 0 ? author : createUser();
+            participantRepository.save(Participant.builder()
+                    .participantId(new ParticipantId(user, room))
+                    .role(roles.get(i % roles.size()))
+                    .score(i % 2 == 0 ? String.valueOf(i) : null)
+                    .build());
+        }
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var participants = participantRepository.findAllDtoByRoomId(room.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(participantsCount, participants.size());
+
+        var authorParticipant = participants.stream()
+                .filter(it -> it.getUserId() == author.getId())
+                .findFirst()
+                .orElseThrow();
+        assertEquals(author.getLastName() + " " + author.getFirstName(), authorParticipant.getName());
+        assertEquals(roles.getFirst().getId(), authorParticipant.getRoleId());
+        assertEquals(roles.getFirst().getName(), authorParticipant.getRoleName());
+        assertEquals("0", authorParticipant.getScore());
+
+        for (int i = 1; i < participants.size(); i++) {
+            assertTrue(participants.get(i - 1).getRoleId() <= participants.get(i).getRoleId());
+        }
+
+        roomRepository.delete(room);
+    }
+
+    @Test
+    void testVote() {
+        var role = roleRepository.findAllByOrderById().getFirst();
+        var user = createUser();
+        var other = createUser();
+        var room = createRoom(user, true);
+        roomRoleRepository.save(new RoomRole(new RoomRoleId(room, role)));
+        participantRepository.save(Participant.builder()
+                .participantId(new ParticipantId(user, room))
+                .role(role)
+                .build());
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(1, vote(user, room, "5"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, vote(other, room, "5"));
+        assertEquals(0, vote(user, createRoom(user, false), "5"));
+
+        var participant = participantRepository.findAllDtoByRoomId(room.getId()).getFirst();
+        assertEquals("5", participant.getScore());
+
+        roomRepository.delete(room);
+    }
+
+    private int vote(User user, Room room, String score) {
+        return transactionTemplate.execute(status -> participantRepository.vote(user.getId(), room.getId(), score));
+    }
+
+    private Room createRoom(User author, boolean voting) {
+        return roomRepository.save(Room.builder()
+                .name("room")
+                .author(author)
+                .voting(voting)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+    }
+
+    private User createUser() {
+        return userRepository.save(User.builder()
+                .login(UUID.randomUUID().toString())
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .build());
+    }
+}
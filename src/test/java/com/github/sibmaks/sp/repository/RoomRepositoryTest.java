@@ -0,0 +1,158 @@
+package com.github.sibmaks.sp.repository;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RoomRoleRepository roomRoleRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testFindInfoByUserId_singleStatement() {
+        var role = roleRepository.findAllByOrderById().getFirst();
+        var user = createUser();
+        var rooms = new ArrayList<Room>();
+        var roomsCount = 10;
+        for (int i = 0; i < roomsCount; i++) {
+            var room = roomRepository.save(Room.builder()
+                    .name("room-" + i)
+                    .author(user)
+                    .voting(i % 2 == 0)
+                    .created(new Date())
+                    .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                    .build());
+            roomRoleRepository.save(new RoomRole(new RoomRoleId(room, role)));
+            addParticipant(user, room, role);
+            for (int j = 0; j < i; j++) {
+                addParticipant(createUser(), room, role);
+            }
+            rooms.add(room);
+        }
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var roomInfos = roomRepository.findInfoByUserId(user.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(roomsCount, roomInfos.size());
+        for (int i = 0; i < roomsCount; i++) {
+            var room = rooms.get(i);
+            var roomInfo = roomInfos.get(i);
+            assertEquals(room.getId(), roomInfo.getId());
+            assertEquals(room.getName(), roomInfo.getName());
+            assertEquals(room.isVoting(), roomInfo.isVoting());
+            assertEquals(i + 1, roomInfo.getParticipants());
+        }
+
+        roomRepository.deleteAll(rooms);
+    }
+
+    @Test
+    void testIncrementVersion() {
+        var user = createUser();
+        var room = roomRepository.save(Room.builder()
+                .name("room")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+        assertEquals(0, roomRepository.findById(room.getId()).orElseThrow().getVersion());
+
+        assertEquals(1, roomRepository.incrementVersion(room.getId()));
+        assertEquals(1, roomRepository.incrementVersion(room.getId()));
+
+        assertEquals(2, roomRepository.findById(room.getId()).orElseThrow().getVersion());
+        assertEquals(0, roomRepository.incrementVersion(-1));
+
+        roomRepository.delete(room);
+    }
+
+    @Test
+    void testFindExpiredIds() {
+        var user = createUser();
+        var expired = new ArrayList<Room>();
+        for (int i = 0; i < 3; i++) {
+            expired.add(roomRepository.save(Room.builder()
+                    .name("expired-" + i)
+                    .author(user)
+                    .voting(true)
+                    .created(new Date())
+                    .expired(new Date(System.currentTimeMillis() - 1))
+                    .build()));
+        }
+        var actual = roomRepository.save(Room.builder()
+                .name("actual")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+
+        var ids = roomRepository.findExpiredIds(Limit.of(2));
+        while (!ids.isEmpty()) {
+            assertTrue(ids.size() <= 2);
+            assertFalse(ids.contains(actual.getId()));
+            roomRepository.deleteAllByIdInBatch(ids);
+            ids = roomRepository.findExpiredIds(Limit.of(2));
+        }
+
+        for (var room : expired) {
+            assertFalse(roomRepository.existsById(room.getId()));
+        }
+        assertTrue(roomRepository.existsById(actual.getId()));
+
+        roomRepository.delete(actual);
+    }
+
+    private void addParticipant(User user, Room room, Role role) {
+        participantRepository.save(Participant.builder()
+                .participantId(new ParticipantId(user, room))
+                .role(role)
+                .build());
+    }
+
+    private User createUser() {
+        return userRepository.save(User.builder()
+                .login(UUID.randomUUID().toString())
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.sibmaks.sp.repository;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.RoomRole;
+import com.github.sibmaks.sp.domain.RoomRoleId;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.RoomRoleDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomRoleRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RoomRoleRepository roomRoleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testSaveAll_batchInsert() {
+        var roles = roleRepository.findAllByOrderById();
+        var user = userRepository.save(User.builder()
+                .login(UUID.randomUUID().toString())
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .build());
+        var room = roomRepository.save(Room.builder()
+                .name("room")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> roomRoleRepository.saveAll(roles.stream()
+                .map(it -> new RoomRole(new RoomRoleId(room, it)))
+                .toList()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(roles.size(), roleRepository.findAllDtoForRoom(room.getId()).size());
+
+        roomRepository.delete(room);
+    }
+
+    @Test
+    void testFindAllDtoForRoom() {
+        var roles = roleRepository.findAllByOrderById();
+        var user = userRepository.save(User.builder()
+                .login(UUID.randomUUID().toString())
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .build());
+        var expired = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        var room = roomRepository.save(Room.builder()
+                .name("room")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(expired)
+                .build());
+        roomRoleRepository.saveAll(roles.stream()
+                .map(it -> new RoomRole(new RoomRoleId(room, it)))
+                .toList());
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var roomRoles = roleRepository.findAllDtoForRoom(room.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(roles, roomRoles.stream().map(RoomRoleDto::getRole).toList());
+        for (var roomRole : roomRoles) {
+            assertEquals(expired.getTime(), roomRole.getExpired().getTime());
+        }
+
+        room.setExpired(new Date(System.currentTimeMillis() - 1));
+        roomRepository.save(room);
+        assertTrue(roleRepository.findAllDtoForRoom(room.getId()).isEmpty());
+
+        roomRepository.delete(room);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.ParticipantRepository;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import com.github.sibmaks.sp.service.RoomMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class ActivityGaugeUpdaterTest {
+
+    @Test
+    void testUpdate() {
+        var roomRepository = mock(RoomRepository.class);
+        var participantRepository = mock(ParticipantRepository.class);
+        var clientSessionRepository = mock(ClientSessionRepository.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        var updater = new ActivityGaugeUpdater(roomRepository, participantRepository, clientSessionRepository,
+                new RoomMetrics(meterRegistry));
+
+        when(roomRepository.countActive())
+                .thenReturn(3L);
+        when(participantRepository.countActivePerRoom())
+                .thenReturn(List.of(2L, 4L, 6L));
+        when(clientSessionRepository.countValid())
+                .thenReturn(20L);
+
+        updater.update();
+
+        assertEquals(3, meterRegistry.get("app.room.active").gauge().value());
+        assertEquals(12, meterRegistry.get("app.room.participants.active").gauge().value());
+        assertEquals(20, meterRegistry.get("app.session.active").gauge().value());
+        var participants = meterRegistry.get("app.room.participants").summary();
+        assertEquals(3, participants.count());
+        assertEquals(12, participants.totalAmount());
+        assertEquals(6, participants.max());
+    }
+}
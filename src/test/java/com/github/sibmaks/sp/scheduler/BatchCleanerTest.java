@@ -0,0 +1,84 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.conf.CleanerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class BatchCleanerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private BatchCleaner batchCleaner;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batchCleaner = new BatchCleaner(new CleanerProperties(10, Duration.ZERO), meterRegistry);
+    }
+
+    @Test
+    void testCleanUp() {
+        var expired = IntStream.range(0, 25)
+                .boxed()
+                .collect(Collectors.toCollection(ArrayList::new));
+        var limits = new ArrayList<Integer>();
+
+        var items = batchCleaner.cleanUp(
+                "test",
+                limit -> {
+                    limits.add(limit.max());
+                    return List.copyOf(expired.subList(0, Math.min(limit.max(), expired.size())));
+                },
+                expired::removeAll
+        );
+
+        assertEquals(25, items);
+        assertTrue(expired.isEmpty());
+        assertEquals(List.of(10, 10, 10), limits);
+        assertEquals(3, meterRegistry.get("app.cleaner.batch").tag("cleaner", "test").timer().count());
+        assertEquals(25, meterRegistry.get("app.cleaner.batch.items").tag("cleaner", "test").counter().count());
+    }
+
+    @Test
+    void testCleanUp_fullLastBatch() {
+        var expired = IntStream.range(0, 10)
+                .boxed()
+                .collect(Collectors.toCollection(ArrayList::new));
+        var batches = new ArrayList<List<Integer>>();
+
+        var items = batchCleaner.cleanUp(
+                "test",
+                limit -> List.copyOf(expired.subList(0, Math.min(limit.max(), expired.size()))),
+                ids -> {
+                    batches.add(ids);
+                    expired.removeAll(ids);
+                }
+        );
+
+        assertEquals(10, items);
+        assertEquals(2, batches.size());
+        assertTrue(batches.get(1).isEmpty());
+    }
+
+    @Test
+    void testCleanUp_nothingExpired() {
+        var items = batchCleaner.cleanUp("test", limit -> List.<Long>of(), ids -> {
+        });
+
+        assertEquals(0, items);
+        assertEquals(1, meterRegistry.get("app.cleaner.batch").tag("cleaner", "test").timer().count());
+    }
+}
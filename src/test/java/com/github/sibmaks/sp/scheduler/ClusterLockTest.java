@@ -0,0 +1,108 @@
+package com.github.sibmaks.sp.scheduler;
+
+import com.github.sibmaks.sp.conf.CleanerProperties;
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ClusterLockTest {
+    @Autowired
+    private ClusterLock clusterLock;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private CleanerProperties cleanerProperties;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRunLocked_leaderKeepsLock() {
+        var executed = new AtomicBoolean();
+        assertTrue(clusterLock.runLocked("test-job", () -> executed.set(true)));
+        assertTrue(executed.get());
+
+        // other instance of lock represents other application instance
+        var other = new ClusterLock(dataSource, cleanerProperties);
+        var otherExecuted = new AtomicBoolean();
+        assertFalse(other.runLocked("test-job", () -> otherExecuted.set(true)));
+        assertFalse(other.runLocked("other-job", () -> otherExecuted.set(true)));
+        assertFalse(otherExecuted.get());
+
+        assertTrue(clusterLock.runLocked("test-job", () -> {
+        }));
+    }
+
+    @Test
+    void testRunLocked_keptOnFailure() {
+        assertThrows(IllegalArgumentException.class, () -> clusterLock.runLocked("failed-job", () -> {
+            throw new IllegalArgumentException();
+        }));
+
+        var other = new ClusterLock(dataSource, cleanerProperties);
+        assertFalse(other.runLocked("failed-job", () -> {
+        }));
+        assertTrue(clusterLock.runLocked("failed-job", () -> {
+        }));
+    }
+
+    @Test
+    void testRelease() {
+        assertTrue(clusterLock.runLocked("test-job", () -> {
+        }));
+        var other = new ClusterLock(dataSource, cleanerProperties);
+        try {
+            clusterLock.release();
+            assertTrue(other.runLocked("test-job", () -> {
+            }));
+            assertFalse(clusterLock.runLocked("test-job", () -> {
+            }));
+        } finally {
+            other.release();
+        }
+        assertTrue(clusterLock.runLocked("test-job", () -> {
+        }));
+    }
+
+    @Test
+    void testLeaderConnectionLost() throws InterruptedException {
+        assertTrue(clusterLock.runLocked("test-job", () -> {
+        }));
+        var other = new ClusterLock(dataSource, cleanerProperties);
+        try {
+            jdbcTemplate.queryForList("select pg_terminate_backend(pid) from pg_locks " +
+                    "where locktype = 'advisory' and classid = ? and objid = 1", 0x53500001);
+
+            var deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            while (!other.runLocked("test-job", () -> {
+            })) {
+                assertTrue(System.currentTimeMillis() < deadline, "Leadership is not released");
+                Thread.sleep(50);
+            }
+            assertFalse(clusterLock.runLocked("test-job", () -> {
+            }));
+        } finally {
+            other.release();
+        }
+        assertTrue(clusterLock.runLocked("test-job", () -> {
+        }));
+    }
+}
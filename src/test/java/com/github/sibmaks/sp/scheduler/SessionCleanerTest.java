@@ -2,8 +2,10 @@ package com.github.sibmaks.sp.scheduler;
 
 import com.github.sibmaks.sp.conf.DataSourceStub;
 import com.github.sibmaks.sp.domain.ClientSession;
+import com.github.sibmaks.sp.domain.RevokedSession;
 import com.github.sibmaks.sp.domain.User;
 import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.RevokedSessionRepository;
 import com.github.sibmaks.sp.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,7 @@ import java.util.Date;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author drobyshev-ma
@@ -34,6 +37,8 @@ class SessionCleanerTest {
     private SessionCleaner sessionCleaner;
     @Autowired
     private ClientSessionRepository clientSessionRepository;
+    @Autowired
+    private RevokedSessionRepository revokedSessionRepository;
 
     @Test
     void testCleanUp() {
@@ -57,4 +62,25 @@ class SessionCleanerTest {
 
         assertFalse(clientSessionRepository.existsById(clientSession.getSessionId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCleanUp_revokedSessions() {
+        var expired = revokedSessionRepository.save(RevokedSession.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .validTo(new Date(System.currentTimeMillis() - 1))
+                .revokedAt(new Date())
+                .build());
+        var actual = revokedSessionRepository.save(RevokedSession.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .validTo(new Date(System.currentTimeMillis() + 60_000))
+                .revokedAt(new Date())
+                .build());
+
+        sessionCleaner.cleanUp();
+
+        assertFalse(revokedSessionRepository.existsById(expired.getTokenId()));
+        assertTrue(revokedSessionRepository.existsById(actual.getTokenId()));
+
+        revokedSessionRepository.delete(actual);
+    }
+}
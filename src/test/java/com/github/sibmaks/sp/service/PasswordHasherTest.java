@@ -0,0 +1,80 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.PasswordHashProperties;
+import com.github.sibmaks.sp.exception.TryAgainException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class PasswordHasherTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = new PasswordHasher(new PasswordHashProperties(1, 1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testHashAndCheck() {
+        var hash = passwordHasher.hash("password");
+
+        assertNotEquals("password", hash);
+        assertTrue(passwordHasher.check("password", hash));
+        assertFalse(passwordHasher.check("password1", hash));
+
+        assertEquals(1, meterRegistry.get("app.password.hash").tag("operation", "hash").timer().count());
+        assertEquals(2, meterRegistry.get("app.password.hash").tag("operation", "check").timer().count());
+        assertEquals(0, meterRegistry.get("app.password.hash.queue").gauge().value());
+    }
+
+    @Test
+    void testHash_queueIsFull() throws InterruptedException {
+        var callers = 8;
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(callers);
+        try {
+            var futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return passwordHasher.hash("password");
+                }));
+            }
+            start.countDown();
+
+            var rejected = 0;
+            for (var future : futures) {
+                try {
+                    assertNotNull(future.get());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(TryAgainException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            assertTrue(rejected > 0);
+            assertEquals(rejected, meterRegistry.get("app.password.hash.rejected").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.api.response.GetRoomResponse;
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomEventServiceTest {
+    private static final String SESSION_ID = "session";
+
+    @MockBean
+    private RoomStateEngine roomStateEngine;
+    @MockBean
+    private SessionService sessionService;
+    @Autowired
+    private RoomEventService roomEventService;
+
+    @Test
+    void testSubscribe_notExists() {
+        var user = mockSessionUser(42);
+
+        when(roomStateEngine.get(43))
+                .thenReturn(null);
+
+        assertThrows(NotFoundException.class, () -> roomEventService.subscribe(user, SESSION_ID, 43));
+    }
+
+    @Test
+    void testSubscribe_notParticipant() {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(43);
+        room.setAuthor(user);
+
+        var participant = new ParticipantDto(41, "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        assertThrows(NotFoundException.class, () -> roomEventService.subscribe(user, SESSION_ID, 43));
+    }
+
+    @Test
+    void testSubscribe() {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(43);
+        room.setAuthor(user);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        assertNotNull(roomEventService.subscribe(user, SESSION_ID, room.getId()));
+    }
+
+    @Test
+    void testOnRoomChanged_noSubscribers() {
+        roomEventService.onRoomChanged(new RoomChangedEvent(44));
+
+        verify(roomStateEngine, after(200).never())
+                .get(44L);
+    }
+
+    @Test
+    void testOnRoomChanged() {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(45);
+        room.setAuthor(user);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        roomEventService.subscribe(user, SESSION_ID, room.getId());
+        roomEventService.onRoomChanged(new RoomChangedEvent(room.getId()));
+
+        verify(roomStateEngine, timeout(1000).times(2))
+                .get(room.getId());
+    }
+
+    @Test
+    void testPoll_notExists() {
+        var user = mockSessionUser(42);
+
+        when(roomStateEngine.get(46))
+                .thenReturn(null);
+
+        assertThrows(NotFoundException.class, () -> roomEventService.poll(user, SESSION_ID, 46, 0));
+    }
+
+    @Test
+    void testPoll_changed() {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(47);
+        room.setAuthor(user);
+        room.setVersion(3);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        var result = roomEventService.poll(user, SESSION_ID, room.getId(), 2);
+
+        var response = assertInstanceOf(GetRoomResponse.class, result.getResult());
+        assertEquals(3, response.getRoomInfo().getVersion());
+    }
+
+    @Test
+    void testPoll_parked() throws InterruptedException {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(48);
+        room.setAuthor(user);
+        room.setVersion(3);
+
+        var changedRoom = new Room();
+        changedRoom.setId(room.getId());
+        changedRoom.setAuthor(user);
+        changedRoom.setVersion(4);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        var result = roomEventService.poll(user, SESSION_ID, room.getId(), 3);
+        assertFalse(result.hasResult());
+
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(changedRoom, Collections.singletonList(participant), System.currentTimeMillis()));
+        var latch = new CountDownLatch(1);
+        result.setResultHandler(it -> latch.countDown());
+
+        roomEventService.onRoomChanged(new RoomChangedEvent(room.getId()));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        var response = assertInstanceOf(GetRoomResponse.class, result.getResult());
+        assertEquals(4, response.getRoomInfo().getVersion());
+    }
+
+    @Test
+    void testOnRoomChanged_loggedOut() throws InterruptedException {
+        var user = mockSessionUser(42);
+
+        var room = new Room();
+        room.setId(49);
+        room.setAuthor(user);
+
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        when(roomStateEngine.get(room.getId()))
+                .thenReturn(new RoomState(room, Collections.singletonList(participant), System.currentTimeMillis()));
+
+        var emitter = roomEventService.subscribe(user, SESSION_ID, room.getId());
+        var result = roomEventService.poll(user, SESSION_ID, room.getId(), 0);
+        assertFalse(result.hasResult());
+        var latch = new CountDownLatch(1);
+        result.setResultHandler(it -> latch.countDown());
+
+        // client session is logged out before room change
+        doThrow(new NotFoundException())
+                .when(sessionService).getSessionUser(SESSION_ID);
+        room.setVersion(1);
+
+        roomEventService.onRoomChanged(new RoomChangedEvent(room.getId()));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertInstanceOf(UnauthorizedException.class, result.getResult());
+
+        // completed emitter doesn't accept events anymore
+        var deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(1);
+        while (!isCompleted(emitter)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Subscription is not completed");
+            Thread.sleep(50);
+        }
+        verify(sessionService, times(3))
+                .getSessionUser(SESSION_ID);
+    }
+
+    private static boolean isCompleted(SseEmitter emitter) {
+        try {
+            emitter.send("room");
+            return false;
+        } catch (IllegalStateException | IOException e) {
+            return true;
+        }
+    }
+
+    private User mockSessionUser(long userId) {
+        var user = new User();
+        user.setId(userId);
+        when(sessionService.getSessionUser(SESSION_ID))
+                .thenReturn(user);
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.exception.NotAllowedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class RoomMetricsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RoomMetrics roomMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        roomMetrics = new RoomMetrics(meterRegistry);
+    }
+
+    @Test
+    void testRecord() {
+        assertEquals("result", roomMetrics.record(RoomMetrics.CREATE, () -> "result"));
+        roomMetrics.record(RoomMetrics.VOTE, () -> {
+        });
+        assertThrows(NotAllowedException.class, () -> roomMetrics.record(RoomMetrics.VOTE, () -> {
+            throw new NotAllowedException();
+        }));
+
+        assertEquals(1, operationCount(RoomMetrics.CREATE, "none"));
+        assertEquals(1, operationCount(RoomMetrics.VOTE, "none"));
+        assertEquals(1, operationCount(RoomMetrics.VOTE, "NotAllowedException"));
+    }
+
+    @Test
+    void testLoadState() {
+        var roomState = mockRoomState(new User(), 3);
+
+        assertSame(roomState, roomMetrics.loadState(() -> roomState));
+        assertNull(roomMetrics.loadState(() -> null));
+
+        assertEquals(2, meterRegistry.get("app.room.state.load").timer().count());
+        assertEquals(0, meterRegistry.get("app.room.participants").summary().count());
+    }
+
+    @Test
+    void testBuildResponse() {
+        var user = new User();
+        user.setId(1);
+        var roomState = mockRoomState(user, 2);
+
+        var response = roomMetrics.buildResponse(user, roomState);
+        roomMetrics.buildResponse(user, roomState);
+
+        assertEquals(42, response.getRoomInfo().getId());
+        assertEquals(1, meterRegistry.get("app.room.response.build").tag("groups", "built").timer().count());
+        assertEquals(1, meterRegistry.get("app.room.response.build").tag("groups", "cached").timer().count());
+    }
+
+    private double operationCount(String operation, String exception) {
+        return meterRegistry.get("app.room.operation")
+                .tag("operation", operation)
+                .tag("exception", exception)
+                .timer()
+                .count();
+    }
+
+    private static RoomState mockRoomState(User author, int participantCount) {
+        var room = new Room();
+        room.setId(42);
+        room.setAuthor(author);
+        var participants = new ArrayList<ParticipantDto>();
+        for (int i = 0; i < participantCount; i++) {
+            participants.add(new ParticipantDto(i + 1L, "last first", 1, "DEV", null));
+        }
+        return new RoomState(room, List.copyOf(participants), System.currentTimeMillis());
+    }
+}
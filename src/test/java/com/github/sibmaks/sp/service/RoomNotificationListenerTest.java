@@ -0,0 +1,149 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import com.github.sibmaks.sp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import({DataSourceStub.class, RoomNotificationListenerTest.RoomChangedEventCollector.class})
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomNotificationListenerTest {
+    @MockBean
+    private RoomStateEngine roomStateEngine;
+    @Autowired
+    private RoomChangedEventCollector eventCollector;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomNotificationListener roomNotificationListener;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        verify(roomStateEngine, timeout(5000).atLeastOnce())
+                .evictAll();
+        eventCollector.events.clear();
+    }
+
+    @Test
+    void testNotification() throws InterruptedException {
+        notify("1000:1:VOTED:5:other-instance");
+
+        var event = eventCollector.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(1000, event.getRoomId());
+        assertEquals(RoomChangedEvent.Type.VOTED, event.getType());
+        assertEquals(5, event.getUserId());
+        assertTrue(event.isRemote());
+    }
+
+    @Test
+    void testNotification_ownAndWrong() throws InterruptedException {
+        notify("1001:2:VOTED:5:" + roomNotificationListener.getInstanceId());
+        notify("wrong");
+        notify("1002:2:UNKNOWN:5:other-instance");
+        notify("1003:2:JOINED:5:other-instance");
+
+        var event = eventCollector.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(1003, event.getRoomId());
+        assertEquals(RoomChangedEvent.Type.JOINED, event.getType());
+    }
+
+    @Test
+    void testRoomChangeNotify() throws Exception {
+        var user = userRepository.save(User.builder()
+                .login(UUID.randomUUID().toString())
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .build());
+        var room = roomRepository.save(Room.builder()
+                .name("room")
+                .author(user)
+                .voting(true)
+                .created(new Date())
+                .expired(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .build());
+
+        try (var connection = dataSource.getConnection()) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("LISTEN " + RoomNotificationListener.CHANNEL);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                roomRepository.incrementVersion(room.getId());
+                eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), RoomChangedEvent.Type.VOTED, user.getId()));
+            });
+
+            var notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+            assertNotNull(notifications);
+            assertEquals(1, notifications.length);
+            var version = roomRepository.findById(room.getId()).orElseThrow().getVersion();
+            var expected = room.getId() + ":" + version + ":VOTED:" + user.getId() + ":" +
+                    roomNotificationListener.getInstanceId();
+            assertEquals(expected, notifications[0].getParameter());
+        }
+
+        var event = eventCollector.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertFalse(event.isRemote());
+        assertNull(eventCollector.events.poll(200, TimeUnit.MILLISECONDS));
+
+        roomRepository.delete(room);
+        userRepository.delete(user);
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.execute("NOTIFY " + RoomNotificationListener.CHANNEL + ", '" + payload + "'");
+    }
+
+    static class RoomChangedEventCollector {
+        private final BlockingQueue<RoomChangedEvent> events = new LinkedBlockingQueue<>();
+
+        @EventListener
+        public void onRoomChanged(RoomChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.github.sibmaks.sp.service;
 
+import com.github.sibmaks.sp.cache.RoleCache;
 import com.github.sibmaks.sp.conf.DataSourceStub;
 import com.github.sibmaks.sp.domain.*;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomInfoDto;
+import com.github.sibmaks.sp.dto.RoomRoleDto;
+import com.github.sibmaks.sp.dto.RoomState;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
 import com.github.sibmaks.sp.exception.NotAllowedException;
 import com.github.sibmaks.sp.exception.NotFoundException;
 import com.github.sibmaks.sp.exception.WrongSecretCodeException;
+import com.github.sibmaks.sp.fixture.JfrEvents;
+import com.github.sibmaks.sp.jfr.RoomVoteEvent;
 import com.github.sibmaks.sp.repository.*;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
@@ -16,8 +25,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.web.util.HtmlUtils;
 
+import java.io.IOException;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +42,7 @@ import static org.mockito.Mockito.*;
 @Import(DataSourceStub.class)
 @ActiveProfiles("test")
 @ContextConfiguration
+@RecordApplicationEvents
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class RoomServiceTest {
     @MockBean
@@ -42,14 +55,26 @@ class RoomServiceTest {
     private RoomRoleRepository roomRoleRepository;
     @MockBean
     private RoomSecretRepository roomSecretRepository;
+    @MockBean
+    private RoomStateEngine roomStateEngine;
     @Autowired
     private RoomService roomService;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void setUp() {
+        // roles are cached, so each test starts with empty cache over mocked repository
+        roleCache.evictAll();
+    }
 
     @Test
     void testCreateRoom_notFound_roles() {
         List<Integer> roleIds = new ArrayList<>();
         roleIds.add(500);
-        when(roleRepository.findAllByIdIn(roleIds)).
+        when(roleRepository.findAllByOrderById()).
                 thenReturn(Collections.emptyList());
 
         assertThrows(NotFoundException.class, () -> roomService.createRoom(null, null, null, roleIds, -1, -1));
@@ -60,7 +85,7 @@ class RoomServiceTest {
         List<Integer> roleIds = new ArrayList<>();
         roleIds.add(1);
         roleIds.add(2);
-        when(roleRepository.findAllByIdIn(roleIds)).
+        when(roleRepository.findAllByOrderById()).
                 thenReturn(Collections.singletonList(new Role()));
 
         assertThrows(NotFoundException.class, () -> roomService.createRoom(null, null, null, roleIds, -1, -1));
@@ -77,7 +102,7 @@ class RoomServiceTest {
         List<Integer> roleIds = new ArrayList<>();
         roleIds.add(role1.getId());
         roleIds.add(role.getId());
-        when(roleRepository.findAllByIdIn(roleIds)).
+        when(roleRepository.findAllByOrderById()).
                 thenReturn(Arrays.asList(role1, role));
 
         assertThrows(NotFoundException.class, () -> roomService.createRoom(null, null,
@@ -95,7 +120,7 @@ class RoomServiceTest {
         List<Integer> roleIds = new ArrayList<>();
         roleIds.add(role1.getId());
         roleIds.add(role.getId());
-        when(roleRepository.findAllByIdIn(roleIds)).
+        when(roleRepository.findAllByOrderById()).
                 thenReturn(Arrays.asList(role1, role));
 
         var roomId = 100;
@@ -164,7 +189,7 @@ class RoomServiceTest {
         List<Integer> roleIds = new ArrayList<>();
         roleIds.add(role1.getId());
         roleIds.add(role.getId());
-        when(roleRepository.findAllByIdIn(roleIds)).
+        when(roleRepository.findAllByOrderById()).
                 thenReturn(Arrays.asList(role1, role));
 
         var roomId = 100;
@@ -232,8 +257,8 @@ class RoomServiceTest {
     @Test
     void testJoinRoom_notFound_room() {
         long roomId = 500;
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.empty());
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.emptyList());
 
         assertThrows(NotFoundException.class, () -> roomService.joinRoom(null, roomId, -1, null));
     }
@@ -243,13 +268,13 @@ class RoomServiceTest {
         long roomId = 500;
         int roleId = 501;
 
-        var room = new Room();
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.of(room));
-        when(roomRoleRepository.findAllByRoomRoleIdRoom(room)).
-                thenReturn(Collections.emptyList());
+        var role = new Role();
+        role.setId(roleId + 1);
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.singletonList(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
 
         assertThrows(NotFoundException.class, () -> roomService.joinRoom(null, roomId, roleId, null));
+        verify(roomRepository, never()).getReferenceById(roomId);
     }
 
     @Test
@@ -258,16 +283,10 @@ class RoomServiceTest {
         int roleId = 501;
         String secret = UUID.randomUUID().toString();
 
-        var room = new Room();
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.of(room));
-
         var role = new Role();
         role.setId(roleId);
-        RoomRole roomRole = new RoomRole();
-        roomRole.setRoomRoleId(new RoomRoleId(room, role));
-        when(roomRoleRepository.findAllByRoomRoleIdRoom(room)).
-                thenReturn(Collections.singletonList(roomRole));
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.singletonList(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
 
         RoomSecret roomSecret = new RoomSecret();
         roomSecret.setSecretCode(secret + 1);
@@ -285,15 +304,13 @@ class RoomServiceTest {
 
         var room = new Room();
         room.setId(roomId);
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.of(room));
+        when(roomRepository.getReferenceById(roomId)).
+                thenReturn(room);
 
         var role = new Role();
         role.setId(roleId);
-        RoomRole roomRole = new RoomRole();
-        roomRole.setRoomRoleId(new RoomRoleId(room, role));
-        when(roomRoleRepository.findAllByRoomRoleIdRoom(room)).
-                thenReturn(Collections.singletonList(roomRole));
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.singletonList(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
 
         RoomSecret roomSecret = new RoomSecret();
         roomSecret.setSecretCode(secret);
@@ -327,20 +344,17 @@ class RoomServiceTest {
 
         var room = new Room();
         room.setId(roomId);
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.of(room));
+        when(roomRepository.getReferenceById(roomId)).
+                thenReturn(room);
 
         var role = new Role();
         role.setId(roleId);
-        RoomRole roomRole = new RoomRole();
-        roomRole.setRoomRoleId(new RoomRoleId(room, role));
 
         Role role2 = new Role();
         role2.setId(roleId + 1);
-        RoomRole roomRole2 = new RoomRole();
-        roomRole2.setRoomRoleId(new RoomRoleId(room, role2));
-        when(roomRoleRepository.findAllByRoomRoleIdRoom(room)).
-                thenReturn(Arrays.asList(roomRole2, roomRole));
+        var expired = new Date(System.currentTimeMillis() + 60_000);
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Arrays.asList(new RoomRoleDto(role2, expired), new RoomRoleDto(role, expired)));
 
         when(roomSecretRepository.findById(roomId)).
                 thenReturn(Optional.empty());
@@ -363,24 +377,45 @@ class RoomServiceTest {
         assertEquals(participant.getParticipantId().getRoom(), room);
         assertEquals(participant.getParticipantId().getUser(), user);
         assertEquals(participant.getRole(), role);
+
+        verify(roomRepository).incrementVersion(roomId);
     }
 
     @Test
-    void testGetRooms() {
-        int userId = 42;
-        List<Room> rooms = Collections.singletonList(new Room());
-        when(roomService.getRooms(42)).
-                thenReturn(rooms);
-        assertEquals(rooms, roomService.getRooms(userId));
+    void testJoinRoom_rolesCached() {
+        long roomId = 502;
+        int roleId = 503;
+
+        var room = new Room();
+        room.setId(roomId);
+        when(roomRepository.getReferenceById(roomId)).
+                thenReturn(room);
+
+        var role = new Role();
+        role.setId(roleId);
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.singletonList(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
+
+        var user = new User();
+        user.setId(100);
+        var otherUser = new User();
+        otherUser.setId(101);
+
+        roomService.joinRoom(user, roomId, roleId, null);
+        roomService.joinRoom(otherUser, roomId, roleId, null);
+
+        verify(roleRepository, times(1)).findAllDtoForRoom(roomId);
+        verify(roomRepository, never()).findById(roomId);
+        verify(participantRepository, times(2)).save(any());
     }
 
     @Test
-    void testGetParticipantCount() {
-        long participants = 100;
-        var room = new Room();
-        when(roomService.getParticipantCount(room)).
-                thenReturn(participants);
-        assertEquals(participants, roomService.getParticipantCount(room));
+    void testGetRoomInfos() {
+        var userId = 42L;
+        var rooms = Collections.singletonList(new RoomInfoDto(1, "name", true, 3));
+        when(roomRepository.findInfoByUserId(userId)).
+                thenReturn(rooms);
+        assertEquals(rooms, roomService.getRoomInfos(userId));
     }
 
     @Test
@@ -397,98 +432,219 @@ class RoomServiceTest {
     }
 
     @Test
-    void testLeaveRoom() {
+    void testGetRoomState_notExists() {
         var user = new User();
         user.setId(43);
         var roomId = 42;
-        var room = new Room();
-
-        when(roomRepository.findByParticipantAndId(user.getId(), roomId)).
-                thenReturn(room);
 
-        roomService.leaveRoom(user, roomId);
+        when(roomStateEngine.get(roomId))
+                .thenReturn(null);
 
-        verify(participantRepository).deleteByParticipantIdUserAndParticipantIdRoom(user, room);
+        assertNull(roomService.getRoomState(user, roomId));
     }
 
     @Test
-    void testVote_notFound() {
-        var roomId = 42L;
-        when(roomRepository.findById(roomId)).
-                thenReturn(Optional.empty());
+    void testGetRoomState_notParticipant() {
         var user = new User();
-        assertThrows(NotFoundException.class, () -> roomService.vote(user, roomId, "score"));
+        user.setId(43);
+        var roomId = 42;
+        var participant = new ParticipantDto(44, "last first", 1, "COMMON", null);
+
+        when(roomStateEngine.get(roomId))
+                .thenReturn(new RoomState(new Room(), List.of(participant), System.currentTimeMillis()));
+
+        assertNull(roomService.getRoomState(user, roomId));
     }
 
     @Test
-    void testVote_notAllowed() {
-        var room = new Room();
-        room.setId(42);
+    void testGetRoomState() {
+        var user = new User();
+        user.setId(43);
+        var roomId = 42;
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        var roomState = new RoomState(new Room(), List.of(participant), System.currentTimeMillis());
 
-        when(roomRepository.findById(room.getId())).
-                thenReturn(Optional.of(room));
-        when(participantRepository.findByParticipantId(any())).
-                thenReturn(Optional.empty());
+        when(roomStateEngine.get(roomId))
+                .thenReturn(roomState);
 
+        assertEquals(roomState, roomService.getRoomState(user, roomId));
+    }
+
+    @Test
+    void testGetRoomPage_notExists() {
         var user = new User();
-        long roomId = room.getId();
-        assertThrows(NotAllowedException.class, () -> roomService.vote(user, roomId, "score"));
+        user.setId(43);
+        var roomId = 42;
+
+        when(roomStateEngine.get(roomId))
+                .thenReturn(null);
+
+        assertNull(roomService.getRoomPage(user, roomId));
     }
 
     @Test
-    void testVote_notVoting() {
+    void testGetRoomPage_author() {
         var user = new User();
+        user.setId(43);
+        var roomId = 42;
+        var room = new Room();
+        room.setId(roomId);
+        room.setAuthor(user);
+        var secretCode = UUID.randomUUID().toString();
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        var roomState = new RoomState(room, secretCode, List.of(participant), System.currentTimeMillis());
+
+        when(roomStateEngine.get(roomId))
+                .thenReturn(roomState);
+
+        var roomPage = roomService.getRoomPage(user, roomId);
+        assertNotNull(roomPage);
+        assertTrue(roomPage.isParticipant());
+        assertEquals(roomState, roomPage.getState());
+        assertTrue(roomPage.hasSecret());
+        assertEquals(secretCode, roomPage.getSecretCode());
+        verify(roleRepository, never()).findAllDtoForRoom(anyLong());
+        verify(roomSecretRepository, never()).findById(anyLong());
+    }
 
+    @Test
+    void testGetRoomPage_notAuthor() {
+        var author = new User();
+        author.setId(44);
+        var user = new User();
+        user.setId(43);
+        var roomId = 42;
         var room = new Room();
-        room.setId(42);
-        room.setVoting(false);
+        room.setId(roomId);
+        room.setAuthor(author);
+        var participant = new ParticipantDto(user.getId(), "last first", 1, "COMMON", null);
+        var roomState = new RoomState(room, "secret", List.of(participant), System.currentTimeMillis());
 
-        when(roomRepository.findById(room.getId())).
-                thenReturn(Optional.of(room));
+        when(roomStateEngine.get(roomId))
+                .thenReturn(roomState);
+
+        var roomPage = roomService.getRoomPage(user, roomId);
+        assertNotNull(roomPage);
+        assertTrue(roomPage.isParticipant());
+        assertTrue(roomPage.hasSecret());
+        assertNull(roomPage.getSecretCode());
+    }
 
-        var participant = new Participant();
-        participant.setParticipantId(new ParticipantId(user, room));
+    @Test
+    void testGetRoomPage_notParticipant() {
+        var author = new User();
+        author.setId(44);
+        var user = new User();
+        user.setId(43);
+        var roomId = 42;
+        var room = new Room();
+        room.setId(roomId);
+        room.setAuthor(author);
+        var participant = new ParticipantDto(author.getId(), "last first", 1, "COMMON", null);
+        var roomState = new RoomState(room, List.of(participant), System.currentTimeMillis());
 
-        when(participantRepository.findByParticipantId(any())).
-                thenReturn(Optional.of(participant));
+        when(roomStateEngine.get(roomId))
+                .thenReturn(roomState);
 
-        long roomId = room.getId();
-        assertThrows(NotAllowedException.class, () -> roomService.vote(user, roomId, "score"));
+        var role = new Role();
+        role.setId(1);
+        when(roleRepository.findAllDtoForRoom(roomId))
+                .thenReturn(List.of(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
+
+        var roomPage = roomService.getRoomPage(user, roomId);
+        assertNotNull(roomPage);
+        assertFalse(roomPage.isParticipant());
+        assertFalse(roomPage.hasSecret());
+        assertNull(roomPage.getSecretCode());
+        assertEquals(List.of(role), roomPage.getRoles());
     }
 
     @Test
-    void testVote() {
-        String score = "score";
+    void testLeaveRoom() {
         var user = new User();
-
+        user.setId(43);
+        var roomId = 42;
         var room = new Room();
-        room.setId(42);
-        room.setVoting(true);
 
-        when(roomRepository.findById(room.getId())).
-                thenReturn(Optional.of(room));
+        when(roomRepository.findByParticipantAndId(user.getId(), roomId)).
+                thenReturn(room);
 
-        var participant = new Participant();
-        participant.setParticipantId(new ParticipantId(user, room));
+        roomService.leaveRoom(user, roomId);
+
+        verify(participantRepository).deleteByParticipantIdUserAndParticipantIdRoom(user, room);
+        verify(roomRepository).incrementVersion(room.getId());
+    }
+
+    @Test
+    void testVote_notAllowed() {
+        var user = new User();
+        user.setId(43);
+        var roomId = 42L;
+
+        when(participantRepository.vote(user.getId(), roomId, "score")).
+                thenReturn(0);
 
-        when(participantRepository.findByParticipantId(any())).
-                thenReturn(Optional.of(participant));
+        assertThrows(NotAllowedException.class, () -> roomService.vote(user, roomId, "score"));
+        assertEquals(0, applicationEvents.stream(RoomChangedEvent.class).count());
+        verify(roomRepository, never()).incrementVersion(roomId);
+    }
 
-        roomService.vote(user, room.getId(), score);
+    @Test
+    void testVote() {
+        var score = "<score>";
+        var user = new User();
+        user.setId(43);
+        var roomId = 42L;
 
-        ArgumentCaptor<Participant> captor = ArgumentCaptor.forClass(Participant.class);
-        verify(participantRepository).save(captor.capture());
+        when(participantRepository.vote(user.getId(), roomId, HtmlUtils.htmlEscape(score))).
+                thenReturn(1);
+
+        roomService.vote(user, roomId, score);
+
+        verify(participantRepository)
+                .vote(user.getId(), roomId, HtmlUtils.htmlEscape(score));
+        verify(roomRepository, never())
+                .findById(roomId);
+        verify(roomRepository)
+                .incrementVersion(roomId);
+        var events = applicationEvents.stream(RoomChangedEvent.class).toList();
+        assertEquals(1, events.size());
+        assertEquals(roomId, events.getFirst().getRoomId());
+        assertEquals(RoomChangedEvent.Type.VOTED, events.getFirst().getType());
+        assertEquals(user.getId(), events.getFirst().getUserId());
+    }
 
-        Participant savedParticipant = captor.getValue();
-        assertEquals(score, savedParticipant.getScore());
+    @Test
+    void testVote_flightRecorderEvent() throws IOException {
+        var user = new User();
+        user.setId(43);
+        var roomId = 601L;
+
+        when(participantRepository.vote(user.getId(), roomId, "1")).
+                thenReturn(1);
+        when(participantRepository.vote(user.getId(), roomId, "2")).
+                thenReturn(0);
+
+        var events = JfrEvents.record(RoomVoteEvent.NAME, () -> {
+            roomService.vote(user, roomId, "1");
+            assertThrows(NotAllowedException.class, () -> roomService.vote(user, roomId, "2"));
+        }).stream()
+                .filter(it -> it.getLong("roomId") == roomId)
+                .toList();
+
+        assertEquals(2, events.size());
+        assertEquals(user.getId(), events.getFirst().getLong("userId"));
+        assertTrue(events.get(0).getBoolean("accepted"));
+        assertFalse(events.get(1).getBoolean("accepted"));
     }
 
     @Test
     void testGetParticipants() {
         var room = new Room();
+        room.setId(42);
 
-        List<Participant> participants = Collections.singletonList(new Participant());
-        when(participantRepository.findAllByParticipantIdRoom(room)).
+        var participants = Collections.singletonList(new ParticipantDto(1, "last first", 1, "COMMON", null));
+        when(participantRepository.findAllDtoByRoomId(room.getId())).
                 thenReturn(participants);
 
         assertEquals(participants, roomService.getParticipants(room));
@@ -539,6 +695,10 @@ class RoomServiceTest {
         assertEquals(room, setVoting);
 
         verify(participantRepository).resetScore(room);
+        verify(roomRepository).incrementVersion(room.getId());
+        var events = applicationEvents.stream(RoomChangedEvent.class).toList();
+        assertEquals(1, events.size());
+        assertEquals(RoomChangedEvent.Type.VOTING_STARTED, events.getFirst().getType());
     }
 
     @Test
@@ -559,17 +719,23 @@ class RoomServiceTest {
         assertEquals(room, setVoting);
 
         verify(participantRepository, never()).resetScore(room);
+        verify(roomRepository).incrementVersion(room.getId());
+        var events = applicationEvents.stream(RoomChangedEvent.class).toList();
+        assertEquals(1, events.size());
+        assertEquals(RoomChangedEvent.Type.VOTING_FINISHED, events.getFirst().getType());
     }
 
     @Test
     void testGetRoles_forRoom() {
         var roomId = 42L;
 
-        List<Role> roles = Collections.singletonList(new Role());
-        when(roleRepository.findAllForRoom(roomId)).
-                thenReturn(roles);
+        var role = new Role();
+        when(roleRepository.findAllDtoForRoom(roomId)).
+                thenReturn(Collections.singletonList(new RoomRoleDto(role, new Date(System.currentTimeMillis() + 60_000))));
 
-        assertEquals(roles, roomService.getRoles(roomId));
+        assertEquals(List.of(role), roomService.getRoles(roomId));
+        assertEquals(List.of(role), roomService.getRoles(roomId));
+        verify(roleRepository, times(1)).findAllDtoForRoom(roomId);
     }
 
     @Test
@@ -578,63 +744,7 @@ class RoomServiceTest {
         when(roleRepository.findAllByOrderById()).
                 thenReturn(roles);
         assertEquals(roles, roomService.getRoles());
+        assertEquals(roles, roomService.getRoles());
+        verify(roleRepository, times(1)).findAllByOrderById();
     }
-
-    @Test
-    void testHasSecret() {
-        var roomId = 42L;
-
-        when(roomSecretRepository.existsById(roomId)).
-                thenReturn(true);
-        assertTrue(roomService.hasSecret(roomId));
-    }
-
-    @Test
-    void testHasSecret_false() {
-        var roomId = 42L;
-
-        when(roomSecretRepository.existsById(roomId)).
-                thenReturn(false);
-        assertFalse(roomService.hasSecret(roomId));
-    }
-
-    @Test
-    void testGetSecret_author() {
-        var user = new User();
-        user.setId(42);
-
-        var room = new Room();
-        room.setId(43);
-        room.setAuthor(user);
-
-        RoomSecret roomSecret = new RoomSecret();
-        roomSecret.setSecretCode("123");
-        when(roomSecretRepository.findById(room.getId())).
-                thenReturn(Optional.of(roomSecret));
-
-        assertEquals(roomSecret.getSecretCode(), roomService.getSecret(user, room));
-
-        verify(roomSecretRepository).findById(room.getId());
-    }
-
-    @Test
-    void testGetSecret_notAuthor() {
-        User author = new User();
-        author.setId(41);
-
-        var user = new User();
-        user.setId(42);
-
-        var room = new Room();
-        room.setId(43);
-        room.setAuthor(author);
-
-        RoomSecret roomSecret = new RoomSecret();
-        roomSecret.setSecretCode("123");
-        when(roomSecretRepository.findById(room.getId())).
-                thenReturn(Optional.of(roomSecret));
-
-        assertNull(roomService.getSecret(user, room));
-        verify(roomSecretRepository, never()).findById(room.getId());
-    }
-}
\ No newline at end of file
+}
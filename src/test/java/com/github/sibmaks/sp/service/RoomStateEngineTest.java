@@ -0,0 +1,110 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.DataSourceStub;
+import com.github.sibmaks.sp.domain.Room;
+import com.github.sibmaks.sp.dto.ParticipantDto;
+import com.github.sibmaks.sp.dto.RoomWithSecretDto;
+import com.github.sibmaks.sp.event.RoomChangedEvent;
+import com.github.sibmaks.sp.fixture.JfrEvents;
+import com.github.sibmaks.sp.jfr.RoomSnapshotBuildEvent;
+import com.github.sibmaks.sp.repository.ParticipantRepository;
+import com.github.sibmaks.sp.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+@Import(DataSourceStub.class)
+@ActiveProfiles("test")
+@ContextConfiguration
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomStateEngineTest {
+    @MockBean
+    private RoomRepository roomRepository;
+    @MockBean
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private RoomStateEngine roomStateEngine;
+
+    @Test
+    void testGet_notExists() {
+        var roomId = 1000L;
+        when(roomRepository.findWithSecretById(roomId))
+                .thenReturn(Optional.empty());
+
+        assertNull(roomStateEngine.get(roomId));
+        assertNull(roomStateEngine.get(roomId));
+
+        verify(roomRepository, times(2))
+                .findWithSecretById(roomId);
+    }
+
+    @Test
+    void testGet_cached() {
+        var room = mockRoom(1001L);
+
+        var state = roomStateEngine.get(room.getId());
+        assertNotNull(state);
+        assertEquals(room, state.getRoom());
+        assertTrue(state.hasParticipant(42));
+        assertFalse(state.hasParticipant(43));
+
+        assertSame(state, roomStateEngine.get(room.getId()));
+
+        verify(roomRepository, times(1))
+                .findWithSecretById(room.getId());
+        verify(participantRepository, times(1))
+                .findAllDtoByRoomId(room.getId());
+    }
+
+    @Test
+    void testOnRoomChanged() {
+        var room = mockRoom(1002L);
+
+        var state = roomStateEngine.get(room.getId());
+        roomStateEngine.onRoomChanged(new RoomChangedEvent(room.getId()));
+        var actual = roomStateEngine.get(room.getId());
+
+        assertNotSame(state, actual);
+        verify(roomRepository, times(2))
+                .findWithSecretById(room.getId());
+    }
+
+    @Test
+    void testGet_flightRecorderEvent() throws IOException {
+        var room = mockRoom(1003L);
+
+        var events = JfrEvents.record(RoomSnapshotBuildEvent.NAME, () -> roomStateEngine.get(room.getId()))
+                .stream()
+                .filter(it -> it.getLong("roomId") == room.getId())
+                .toList();
+
+        assertEquals(1, events.size());
+        assertTrue(events.getFirst().getBoolean("found"));
+        assertEquals(1, events.getFirst().getInt("participants"));
+    }
+
+    private Room mockRoom(long roomId) {
+        var room = new Room();
+        room.setId(roomId);
+        when(roomRepository.findWithSecretById(roomId))
+                .thenReturn(Optional.of(new RoomWithSecretDto(room, null)));
+        when(participantRepository.findAllDtoByRoomId(roomId))
+                .thenReturn(Collections.singletonList(new ParticipantDto(42, "last first", 1, "COMMON", null)));
+        return room;
+    }
+}
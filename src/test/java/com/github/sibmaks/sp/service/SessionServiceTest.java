@@ -3,8 +3,12 @@ package com.github.sibmaks.sp.service;
 import com.github.sibmaks.sp.conf.DataSourceStub;
 import com.github.sibmaks.sp.domain.ClientSession;
 import com.github.sibmaks.sp.domain.User;
+import com.github.sibmaks.sp.dto.SessionUserDto;
 import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.fixture.JfrEvents;
+import com.github.sibmaks.sp.jfr.SessionLookupEvent;
 import com.github.sibmaks.sp.repository.ClientSessionRepository;
+import com.github.sibmaks.sp.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +18,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.io.IOException;
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +37,10 @@ import static org.mockito.Mockito.*;
 class SessionServiceTest {
     @MockBean
     private ClientSessionRepository clientSessionRepository;
+    @MockBean
+    private SessionTokenService sessionTokenService;
+    @MockBean
+    private UserRepository userRepository;
     @Autowired
     private SessionService service;
 
@@ -86,7 +96,7 @@ class SessionServiceTest {
     void testIsAuthorized_true() {
         var sessionId = UUID.randomUUID().toString();
 
-        when(clientSessionRepository.existsById(sessionId))
+        when(clientSessionRepository.existsBySessionIdAndValidToAfter(eq(sessionId), any()))
                 .thenReturn(true);
 
         assertTrue(service.isAuthorized(sessionId));
@@ -96,7 +106,7 @@ class SessionServiceTest {
     void testIsAuthorized_false() {
         var sessionId = UUID.randomUUID().toString();
 
-        when(clientSessionRepository.existsById(sessionId))
+        when(clientSessionRepository.existsBySessionIdAndValidToAfter(eq(sessionId), any()))
                 .thenReturn(false);
 
         assertFalse(service.isAuthorized(sessionId));
@@ -119,4 +129,189 @@ class SessionServiceTest {
         verify(clientSessionRepository)
                 .deleteById(sessionId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetSessionUser() {
+        var sessionId = UUID.randomUUID().toString();
+        var user = mockSessionUser(sessionId, 42);
+
+        assertEquals(user, service.getSessionUser(sessionId));
+        assertEquals(user, service.getSessionUser(sessionId));
+
+        verify(clientSessionRepository, times(1))
+                .findValidWithUser(sessionId);
+    }
+
+    @Test
+    void testGetSessionUser_flightRecorderEvent() throws IOException {
+        var sessionId = UUID.randomUUID().toString();
+        var user = mockSessionUser(sessionId, 4242);
+
+        var events = JfrEvents.record(SessionLookupEvent.NAME, () -> {
+            service.getSessionUser(sessionId);
+            service.getSessionUser(sessionId);
+        }).stream()
+                .filter(it -> it.getLong("userId") == user.getId())
+                .toList();
+
+        assertEquals(2, events.size());
+        assertEquals(SessionLookupEvent.SOURCE_DB, events.get(0).getString("source"));
+        assertEquals(SessionLookupEvent.SOURCE_CACHE, events.get(1).getString("source"));
+        assertTrue(events.get(1).getBoolean("found"));
+    }
+
+    @Test
+    void testGetSessionUser_null() {
+        assertThrows(NotFoundException.class, () -> service.getSessionUser(null));
+    }
+
+    @Test
+    void testGetSessionUser_notExists() {
+        var sessionId = UUID.randomUUID().toString();
+
+        when(clientSessionRepository.findValidWithUser(sessionId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> service.getSessionUser(sessionId));
+    }
+
+    @Test
+    void testIsAuthorized_cached() {
+        var sessionId = UUID.randomUUID().toString();
+        mockSessionUser(sessionId, 42);
+
+        service.getSessionUser(sessionId);
+
+        assertTrue(service.isAuthorized(sessionId));
+        verify(clientSessionRepository, never())
+                .existsBySessionIdAndValidToAfter(eq(sessionId), any());
+    }
+
+    @Test
+    void testLogout_evictCached() {
+        var sessionId = UUID.randomUUID().toString();
+        mockSessionUser(sessionId, 42);
+
+        service.getSessionUser(sessionId);
+        service.logout(sessionId);
+
+        when(clientSessionRepository.findValidWithUser(sessionId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> service.getSessionUser(sessionId));
+    }
+
+    @Test
+    void testEvictUser() {
+        var sessionId = UUID.randomUUID().toString();
+        var user = mockSessionUser(sessionId, 42);
+
+        service.getSessionUser(sessionId);
+        service.evictUser(user.getId());
+        service.getSessionUser(sessionId);
+
+        verify(clientSessionRepository, times(2))
+                .findValidWithUser(sessionId);
+    }
+
+    @Test
+    void testCreateSession_token() {
+        var user = new User();
+        user.setId(42);
+        var token = "payload." + UUID.randomUUID();
+
+        when(sessionTokenService.isEnabled())
+                .thenReturn(true);
+        when(sessionTokenService.issue(eq(user.getId()), any(), any()))
+                .thenReturn(token);
+        when(sessionTokenService.verify(token))
+                .thenReturn(tokenSession(token, user.getId()));
+
+        assertEquals(token, service.createSession(user));
+        assertEquals(user, service.getSessionUser(token));
+
+        verify(clientSessionRepository, never())
+                .save(any());
+        verify(userRepository, never())
+                .findById(anyLong());
+    }
+
+    @Test
+    void testGetSessionUser_token() {
+        var token = "payload." + UUID.randomUUID();
+        var user = new User();
+        user.setId(42);
+
+        when(sessionTokenService.verify(token))
+                .thenReturn(tokenSession(token, user.getId()));
+        when(userRepository.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+
+        assertEquals(user, service.getSessionUser(token));
+        assertEquals(user, service.getSessionUser(token));
+
+        verify(userRepository, times(1))
+                .findById(user.getId());
+        verify(clientSessionRepository, never())
+                .findValidWithUser(token);
+    }
+
+    @Test
+    void testGetSessionUser_tokenInvalid() {
+        var token = "payload." + UUID.randomUUID();
+
+        when(sessionTokenService.verify(token))
+                .thenReturn(null);
+
+        assertThrows(NotFoundException.class, () -> service.getSessionUser(token));
+        assertThrows(NotFoundException.class, () -> service.getSession(token));
+        assertFalse(service.isAuthorized(token));
+    }
+
+    @Test
+    void testIsAuthorized_token() {
+        var token = "payload." + UUID.randomUUID();
+
+        when(sessionTokenService.verify(token))
+                .thenReturn(tokenSession(token, 42));
+
+        assertTrue(service.isAuthorized(token));
+        verify(clientSessionRepository, never())
+                .existsBySessionIdAndValidToAfter(eq(token), any());
+    }
+
+    @Test
+    void testLogout_token() {
+        var token = "payload." + UUID.randomUUID();
+
+        service.logout(token);
+
+        verify(sessionTokenService)
+                .revoke(token);
+        verify(clientSessionRepository, never())
+                .deleteById(token);
+    }
+
+    private static ClientSession tokenSession(String token, long userId) {
+        return ClientSession.builder()
+                .sessionId(token)
+                .userId(userId)
+                .createdAt(new Date())
+                .validTo(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+
+    private User mockSessionUser(String sessionId, long userId) {
+        var clientSession = ClientSession.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .createdAt(new Date())
+                .validTo(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+        var user = new User();
+        user.setId(userId);
+        when(clientSessionRepository.findValidWithUser(sessionId))
+                .thenReturn(Optional.of(new SessionUserDto(clientSession, user)));
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.sibmaks.sp.service;
+
+import com.github.sibmaks.sp.conf.SessionProperties;
+import com.github.sibmaks.sp.domain.RevokedSession;
+import com.github.sibmaks.sp.repository.RevokedSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author sibmaks
+ * @since 0.0.5
+ */
+class SessionTokenServiceTest {
+    private RevokedSessionRepository revokedSessionRepository;
+    private SessionTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        revokedSessionRepository = mock(RevokedSessionRepository.class);
+        when(revokedSessionRepository.findAllByRevokedAtAfterAndValidToAfter(any(), any()))
+                .thenReturn(Collections.emptyList());
+        service = new SessionTokenService(
+                new SessionProperties(SessionProperties.Mode.TOKEN, "secret"),
+                revokedSessionRepository
+        );
+        service.init();
+    }
+
+    @Test
+    void testInit_noSecret() {
+        var tokenService = new SessionTokenService(
+                new SessionProperties(SessionProperties.Mode.TOKEN, " "),
+                revokedSessionRepository
+        );
+        assertThrows(IllegalStateException.class, tokenService::init);
+    }
+
+    @Test
+    void testIsToken() {
+        assertFalse(SessionTokenService.isToken("c9b1f6e2-7d0a-4f5e-9b3a-2f1d8e6c4a70"));
+        assertTrue(SessionTokenService.isToken(service.issue(42, new Date(), validTo())));
+    }
+
+    @Test
+    void testVerify() {
+        var createdAt = new Date();
+        var validTo = validTo();
+        var token = service.issue(42, createdAt, validTo);
+
+        var session = service.verify(token);
+
+        assertNotNull(session);
+        assertEquals(token, session.getSessionId());
+        assertEquals(42, session.getUserId());
+        assertEquals(createdAt, session.getCreatedAt());
+        assertEquals(validTo, session.getValidTo());
+        verify(revokedSessionRepository, never())
+                .findById(any());
+    }
+
+    @Test
+    void testVerify_unique() {
+        var createdAt = new Date();
+        var validTo = validTo();
+        assertNotEquals(service.issue(42, createdAt, validTo), service.issue(42, createdAt, validTo));
+    }
+
+    @Test
+    void testVerify_tampered() {
+        var token = service.issue(42, new Date(), validTo());
+        var otherToken = service.issue(43, new Date(), validTo());
+
+        var forged = otherToken.substring(0, otherToken.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertNull(service.verify(forged));
+        assertNull(service.verify(token + "A"));
+        assertNull(service.verify("payload.signature"));
+    }
+
+    @Test
+    void testVerify_otherSecret() {
+        var otherService = new SessionTokenService(
+                new SessionProperties(SessionProperties.Mode.TOKEN, "other-secret"),
+                revokedSessionRepository
+        );
+        otherService.init();
+
+        assertNull(service.verify(otherService.issue(42, new Date(), validTo())));
+    }
+
+    @Test
+    void testVerify_expired() {
+        var token = service.issue(42, new Date(), new Date(System.currentTimeMillis() - 1));
+
+        assertNull(service.verify(token));
+    }
+
+    @Test
+    void testVerify_disabled() {
+        var token = service.issue(42, new Date(), validTo());
+        var dbService = new SessionTokenService(
+                new SessionProperties(SessionProperties.Mode.DB, "secret"),
+                revokedSessionRepository
+        );
+        dbService.init();
+
+        assertNull(dbService.verify(token));
+    }
+
+    @Test
+    void testRevoke() {
+        var token = service.issue(42, new Date(), validTo());
+
+        service.revoke(token);
+
+        assertNull(service.verify(token));
+        var captor = ArgumentCaptor.forClass(RevokedSession.class);
+        verify(revokedSessionRepository)
+                .save(captor.capture());
+        assertEquals(token.substring(token.indexOf('.') + 1), captor.getValue().getTokenId());
+    }
+
+    @Test
+    void testRevoke_invalid() {
+        service.revoke("payload.signature");
+
+        verify(revokedSessionRepository, never())
+                .save(any());
+    }
+
+    @Test
+    void testSyncRevoked() {
+        var token = service.issue(42, new Date(), validTo());
+        var revokedSession = RevokedSession.builder()
+                .tokenId(token.substring(token.indexOf('.') + 1))
+                .validTo(validTo())
+                .revokedAt(new Date())
+                .build();
+        when(revokedSessionRepository.findAllByRevokedAtAfterAndValidToAfter(any(), any()))
+                .thenReturn(List.of(revokedSession));
+
+        assertNotNull(service.verify(token));
+
+        service.syncRevoked();
+
+        assertNull(service.verify(token));
+    }
+
+    private static Date validTo() {
+        return new Date(System.currentTimeMillis() + 60_000);
+    }
+}
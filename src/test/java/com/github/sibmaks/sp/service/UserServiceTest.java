@@ -4,6 +4,7 @@ import com.github.sibmaks.sp.conf.DataSourceStub;
 import com.github.sibmaks.sp.domain.User;
 import com.github.sibmaks.sp.exception.LoginIsBusyException;
 import com.github.sibmaks.sp.exception.NotFoundException;
+import com.github.sibmaks.sp.exception.TryAgainException;
 import com.github.sibmaks.sp.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -12,6 +13,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.test.context.ActiveProfiles;
@@ -38,6 +40,8 @@ class UserServiceTest {
     private SessionService sessionService;
     @MockBean
     private UserRepository userRepository;
+    @SpyBean
+    private PasswordHasher passwordHasher;
     @Autowired
     private UserService userService;
 
@@ -87,6 +91,35 @@ class UserServiceTest {
         assertThrows(NotFoundException.class, () -> userService.login(login, password + "1"));
     }
 
+    @Test
+    void testLogin_tryAgain() {
+        var user = new User();
+        user.setLogin("login");
+        user.setPassword("hash");
+        user.setId(42);
+
+        when(userRepository.findByLogin(user.getLogin()))
+                .thenReturn(user);
+        doThrow(new TryAgainException())
+                .when(passwordHasher).check("password", user.getPassword());
+
+        assertThrows(TryAgainException.class, () -> userService.login(user.getLogin(), "password"));
+        verify(sessionService, never())
+                .createSession(any());
+    }
+
+    @Test
+    void testCreateUser_tryAgain() {
+        when(userRepository.existsByLogin("login"))
+                .thenReturn(false);
+        doThrow(new TryAgainException())
+                .when(passwordHasher).hash("password");
+
+        assertThrows(TryAgainException.class, () -> userService.createUser("login", "password", "first", "last"));
+        verify(userRepository, never())
+                .save(any());
+    }
+
     @Test
     void testCreateUser() {
         var login = "login";
@@ -154,6 +187,8 @@ class UserServiceTest {
 
         verify(userRepository)
                 .save(user);
+        verify(sessionService)
+                .evictUser(user.getId());
     }
 
     @Test
@@ -189,6 +224,8 @@ class UserServiceTest {
 
         verify(userRepository)
                 .save(user);
+        verify(sessionService)
+                .evictUser(user.getId());
     }
 
     @ParameterizedTest